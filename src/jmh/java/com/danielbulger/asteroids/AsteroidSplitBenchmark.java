@@ -0,0 +1,41 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.asteroids.entity.AsteroidStore;
+import com.danielbulger.asteroids.entity.ScalarIntegrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a full health asteroid all the way down, which reuses the same slots every time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsteroidSplitBenchmark {
+
+	private final AsteroidStore asteroids = new AsteroidStore(
+		new SplitMix64(0), new ScalarIntegrator(), true
+	);
+
+	@Benchmark
+	public AsteroidStore split() {
+
+		asteroids.split(asteroids.add(400, 400, 0.5, 0.5, 3));
+
+		while (!asteroids.isEmpty()) {
+			for (int i = 0; i < asteroids.getLimit(); ++i) {
+				if (asteroids.isAlive(i)) {
+					asteroids.split(i);
+				}
+			}
+		}
+
+		return asteroids;
+	}
+}
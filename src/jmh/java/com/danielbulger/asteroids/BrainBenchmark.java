@@ -0,0 +1,48 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BrainBenchmark {
+
+	@Param({"5", "20", "80"})
+	private int asteroids;
+
+	private Game game;
+
+	@Setup
+	public void setup() throws Exception {
+
+		final Properties properties = Trainer.getProperties();
+		final Genome genome = Trainer.getEvolution(properties).getGenomes().get(0);
+
+		game = new Game(Trainer.WIDTH, Trainer.HEIGHT, genome, Settings.fromProperties(properties), 0);
+		game.spawnAsteroids(asteroids);
+
+		// Let the first tick build the grid.
+		game.update();
+	}
+
+	@Benchmark
+	public float[] observe() {
+		return game.getBrain().observe(game.getAsteroids(), game.getGrid());
+	}
+
+	@Benchmark
+	public float[] sense() {
+		return game.getBrain().sense(game.getAsteroids(), game.getGrid());
+	}
+}
@@ -0,0 +1,36 @@
+package com.danielbulger.asteroids;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+
+	private final Vector2 circle = new Vector2(400, 400);
+
+	private final Vector2 start = new Vector2(340, 420);
+
+	private final Vector2 end = new Vector2(460, 420);
+
+	private final Vector2 farStart = new Vector2(0, 0);
+
+	private final Vector2 farEnd = new Vector2(20, 10);
+
+	@Benchmark
+	public boolean lineAndCircleHit() {
+		return Collision.testLineAndCircle(circle, 45, start, end);
+	}
+
+	@Benchmark
+	public boolean lineAndCircleMiss() {
+		return Collision.testLineAndCircle(circle, 45, farStart, farEnd);
+	}
+}
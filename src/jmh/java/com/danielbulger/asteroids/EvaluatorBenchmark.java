@@ -0,0 +1,78 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the same generation on each of the thread pool evaluators, so playing each game a slice at
+ * a time on a work-stealing pool can be judged against playing it to the end on a fixed pool.
+ * <p>
+ * Every evaluator plays identical games, the genomes, seeds and tick limit never change and
+ * nothing is cached, so any difference is down to how the episodes are scheduled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EvaluatorBenchmark {
+
+	private static final int EPISODES = 4;
+
+	private static final int MAX_TICKS = 5000;
+
+	@Param({"fork-join", "fixed"})
+	private String evaluator;
+
+	private Settings settings;
+
+	private List<Genome> genomes;
+
+	private long[] seeds;
+
+	private GenerationEvaluator generations;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+
+		final Properties properties = Trainer.getProperties();
+		properties.setProperty("evaluation.evaluator", evaluator);
+		properties.setProperty("episode.max-ticks", Integer.toString(MAX_TICKS));
+
+		settings = Settings.fromProperties(properties);
+		genomes = Trainer.getEvolution(properties).getGenomes();
+		seeds = new long[EPISODES];
+
+		for (int i = 0; i < seeds.length; ++i) {
+			seeds[i] = i;
+		}
+
+		generations = Trainer.createEvaluator(settings);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		generations.close();
+	}
+
+	@Benchmark
+	public Generation evaluate() throws InterruptedException {
+
+		final Generation generation = new Generation(genomes, seeds, settings);
+
+		generations.evaluate(generation);
+
+		return generation;
+	}
+}
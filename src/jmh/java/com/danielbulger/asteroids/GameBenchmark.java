@@ -0,0 +1,49 @@
+package com.danielbulger.asteroids;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single tick of a game without a genome, so the asteroids are never shot and the count
+ * stays where it was set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GameBenchmark {
+
+	@Param({"5", "20", "80"})
+	private int asteroids;
+
+	private final Settings settings = Settings.defaults();
+
+	private Game game;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		game = new Game(Trainer.WIDTH, Trainer.HEIGHT, null, settings, 0);
+		game.spawnAsteroids(asteroids);
+	}
+
+	@Benchmark
+	public Game update() {
+
+		// Keep the asteroid count fixed once the ship has run out of lives.
+		if (game.isGameOver()) {
+			setup();
+		}
+
+		game.update();
+
+		return game;
+	}
+}
@@ -0,0 +1,42 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One whole generation of training games on every core, followed by evolving the population.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TrainingBenchmark {
+
+	private Trainer trainer;
+
+	@Setup(Level.Iteration)
+	public void setup() throws Exception {
+		final Properties properties = Trainer.getProperties();
+		trainer = new Trainer(Trainer.getEvolution(properties), Settings.fromProperties(properties));
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		trainer.shutdown();
+	}
+
+	@Benchmark
+	public Genome generation() throws InterruptedException {
+		return trainer.runGeneration();
+	}
+}
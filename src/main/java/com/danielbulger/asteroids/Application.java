@@ -1,46 +1,15 @@
 package com.danielbulger.asteroids;
 
-import com.danielbulger.neat.Evolution;
-import com.danielbulger.neat.Genome;
-import com.danielbulger.neat.evaluate.SpeciesDistanceClassifier;
-import com.danielbulger.neat.select.WeightedFitnessSelect;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.danielbulger.asteroids.render.GameCanvas;
 
 import javax.swing.*;
-import java.awt.*;
-import java.io.FileReader;
-import java.net.URL;
-import java.util.List;
-import java.util.Properties;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Phaser;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
 
-public class Application extends Canvas {
+public class Application extends GameCanvas {
 
-	private static final Logger LOG = LoggerFactory.getLogger(Application.class.getName());
-
-	private static Evolution getEvolution() throws Exception {
-
-		final Properties properties = new Properties();
-		final URL url = Application.class.getClassLoader().getResource("neat.properties");
-
-		if (url == null) {
-			throw new Exception("No properties file founds");
-		}
-
-		properties.load(new FileReader(url.getFile()));
-
-		return new Evolution(
-			properties,
-			new SpeciesDistanceClassifier(1.5f, 1.5f, 0.8f, 1.0f),
-			new WeightedFitnessSelect()
-		);
-	}
-
-	private static final int WIDTH = 800;
-	private static final int HEIGHT = 800;
+	private static final int WIDTH = Trainer.WIDTH;
+	private static final int HEIGHT = Trainer.HEIGHT;
 
 	public static void main(final String[] args) throws Exception {
 
@@ -56,130 +25,53 @@ public class Application extends Canvas {
 		frame.setFocusable(true);
 		frame.setVisible(true);
 
-		application.run(getEvolution());
-	}
-
-	private Game activeGame = null;
-
-	private volatile boolean running = true;
-
-	private Genome best = null;
-
-	private void runTrainingGames(Evolution evolution) {
-
-		final int numWorkers = Runtime.getRuntime().availableProcessors();
-
-		final ExecutorService workers = Executors.newFixedThreadPool(numWorkers);
-
-		final Phaser phaser = new Phaser(1);
+		final Training trainer = Trainer.create(Trainer.getProperties());
 
-		while (running) {
+		final Path resume = Checkpoint.getResumePath(args);
 
-			final List<Genome> genomes = evolution.getGenomes();
-
-			phaser.bulkRegister(genomes.size());
-
-			for (final Genome genome : genomes) {
-				workers.submit(new BrainGame(phaser, genome));
-			}
-
-			// Wait until all other genomes have finished playing.
-			phaser.arriveAndAwaitAdvance();
-
-			best = new Genome(evolution.evolve());
-
-			LOG.info("Population completed best: {}", best);
+		if (resume != null) {
+			trainer.resume(resume);
 		}
 
-		workers.shutdownNow();
+		application.run(trainer);
 	}
 
-	public void run(Evolution evolution) {
-
-		final long fps = 60;
-		final long milliPerFrame = 1_000 / fps;
+	private final SplittableRandom seeds = new SplittableRandom();
 
-		final List<Genome> genomes = evolution.getGenomes();
+	private Training trainer;
 
-		best = genomes.get(0);
-
-		final Thread thread = new Thread(() -> {
-			runTrainingGames(evolution);
-		});
-
-		thread.start();
-
-		while (running) {
+	// Only touched by the thread playing the game.
+	private Game activeGame = null;
 
-			if (activeGame == null || activeGame.isGameOver()) {
-				activeGame = new Game(WIDTH, HEIGHT, best);
-			}
+	private volatile boolean running = true;
 
-			final long now = System.currentTimeMillis();
+	public void run(Training trainer) {
 
-			synchronized (this) {
-				activeGame.update();
-			}
+		this.trainer = trainer;
 
-			repaint();
+		final Thread thread = new Thread(trainer);
 
-			final long time = milliPerFrame - (System.currentTimeMillis() - now);
+		thread.start();
 
-			if (time > 0) {
-				try {
-					Thread.sleep(time);
-				} catch (InterruptedException exception) {
-					break;
-				}
-			}
-		}
+		play(trainer.getSettings().getTicksPerSecond(), trainer.getSettings().getFramesPerSecond());
 
+		trainer.stop();
 	}
 
 	@Override
-	public void paint(final Graphics g) {
-		if (activeGame == null) {
-			return;
-		}
+	protected boolean tick() {
 
-		// Make sure we don't render while an update is happening.
-		synchronized (this) {
-			final Graphics2D graphics = (Graphics2D) g;
-
-			graphics.setColor(Color.BLACK);
-			graphics.fillRect(0, 0, WIDTH, HEIGHT);
-
-			activeGame.render(graphics);
+		if (activeGame == null || activeGame.isGameOver()) {
+			activeGame = new Game(WIDTH, HEIGHT, trainer.getBest(), trainer.getSettings(), seeds.nextLong());
 		}
 
-		Toolkit.getDefaultToolkit().sync();
-	}
+		activeGame.update();
 
-	private static class BrainGame implements Runnable {
-
-		private final Phaser phaser;
-
-		private final Genome genome;
-
-		private BrainGame(Phaser phaser, Genome genome) {
-			this.phaser = phaser;
-			this.genome = genome;
-		}
-
-		@Override
-		public void run() {
-
-			try {
-
-				final Game game = new Game(WIDTH, HEIGHT, genome);
-
-				while (!game.isGameOver()) {
-					game.update();
-				}
+		return running;
+	}
 
-			} finally {
-				phaser.arriveAndDeregister();
-			}
-		}
+	@Override
+	protected Game getGame() {
+		return activeGame;
 	}
 }
@@ -1,16 +1,23 @@
 package com.danielbulger.asteroids;
 
-import com.danielbulger.asteroids.entity.Asteroid;
+import com.danielbulger.asteroids.entity.AsteroidStore;
 import com.danielbulger.asteroids.entity.Ship;
+import com.danielbulger.asteroids.jfr.Sampling;
+import com.danielbulger.asteroids.jfr.SenseEvent;
 import com.danielbulger.neat.Genome;
 
-import java.awt.*;
-import java.util.Collection;
-
 public class Brain {
 
 	private static final double THRESHOLD = 0.8;
 
+	public static final int SHOOT = 1;
+
+	public static final int BOOST = 1 << 1;
+
+	public static final int TURN_LEFT = 1 << 2;
+
+	public static final int TURN_RIGHT = 1 << 3;
+
 	private final Ship ship;
 
 	private final Genome genome;
@@ -19,110 +26,183 @@ public class Brain {
 
 	private final Vector2[] sight;
 
-	public Brain(Genome genome, Ship ship, GameState state) {
+	private final RaySensor sensor;
+
+	// Scratch space reused every tick so that sensing doesn't allocate.
+	private final float[] inputs;
+
+	private final Vector2 direction = new Vector2();
+
+	private int action;
+
+	public Brain(Genome genome, Ship ship, GameState state, Settings settings) {
 		this.genome = genome;
 		this.ship = ship;
 		this.state = state;
-		this.sight = new Vector2[genome.getNumInputs() - 1];
+		this.inputs = new float[genome == null ? settings.getInputNodes() : genome.getNumInputs()];
+		this.sight = new Vector2[inputs.length - 1];
+		this.sensor = new RaySensor(state.getWidth(), state.getHeight(), settings.getRayResolution());
+
+		for (int i = 0; i < sight.length; ++i) {
+			sight[i] = new Vector2();
+		}
 	}
 
-	public void render(Graphics2D graphics) {
+	public void update(AsteroidStore asteroids, SpatialGrid grid) {
 
-		graphics.setColor(Color.WHITE);
+		if (Sampling.isSampled(state.getTicks()) && SenseEvent.PROBE.isEnabled()) {
+			final SenseEvent event = new SenseEvent();
+			event.rays = sight.length;
+			event.asteroids = asteroids.size();
+			event.begin();
 
-		for(final Vector2 vector : sight) {
-			graphics.drawLine(
-				(int) ship.getPosition().getX(),
-				(int) ship.getPosition().getY(),
-				(int) vector.getX(),
-				(int) vector.getY()
-			);
+			think(asteroids, grid);
+
+			event.commit();
+		} else {
+			think(asteroids, grid);
 		}
 	}
 
-	public void update(Collection<Asteroid> asteroids) {
+	private void think(AsteroidStore asteroids, SpatialGrid grid) {
+
+		sense(asteroids, grid);
+
 		if (genome == null) {
 			return;
 		}
 
-		genome.setFitness(calculateFitness());
+		act(decide(genome.feedForward(inputs)));
+	}
 
-		performAction(observe(asteroids));
+	/**
+	 * Records the fitness for the final state of the game, however it ended.
+	 */
+	public void finish() {
+		if (genome != null) {
+			genome.setFitness(calculateFitness());
+		}
 	}
 
-	public float[] observe(Collection<Asteroid> asteroids) {
+	public float getFitness() {
+		return calculateFitness();
+	}
 
-		final double segmentSize = (2 * Math.PI) / sight.length;
+	public float[] observe(AsteroidStore asteroids, SpatialGrid grid) {
+		return genome.feedForward(sense(asteroids, grid));
+	}
 
-		// 1 input for the shoot status and 8 for the direction
-		final float[] inputs = new float[1 + sight.length];
+	/**
+	 * Fills the network inputs from what the ship can currently see.
+	 *
+	 * @return The inputs, which are overwritten by the next call.
+	 */
+	public float[] sense(AsteroidStore asteroids, SpatialGrid grid) {
+
+		final double segmentSize = (2 * Math.PI) / sight.length;
 
+		// 1 input for the shoot status and the rest for each direction
 		inputs[0] = ship.canShoot() ? 1 : 0;
 
-		final Vector2 position = new Vector2();
+		final Vector2 origin = ship.getPosition();
 
 		for (int i = 1; i < inputs.length; ++i) {
 
-			position.set(ship.getPosition());
+			final double angle = ship.getRotation() + ((i - 1) * segmentSize);
 
-			final Vector2 direction = Vector2.fromAngle(ship.getRotation() + ((i - 1) * segmentSize));
+			direction.set(Math.cos(angle), Math.sin(angle));
 
-			final Asteroid result = castRay(direction, position, asteroids);
+			final double distance = sensor.cast(origin, direction, asteroids, grid);
 
-			sight[i - 1] = new Vector2(position);
+			inputs[i] = distance >= 0 ? (float) distance : 0;
 
-			if (result != null) {
-				inputs[i] = (float) ship.getPosition().distance(position);
-			}
+			final double length = distance >= 0 ? distance : sensor.range(origin, direction);
+
+			sight[i - 1].set(
+				origin.getX() + (direction.getX() * length),
+				origin.getY() + (direction.getY() * length)
+			);
 		}
 
-		return genome.feedForward(inputs);
+		return inputs;
+	}
+
+	public void performAction(float[] actions) {
+		act(decide(actions));
 	}
 
-	private Asteroid castRay(Vector2 direction, Vector2 position, Collection<Asteroid> asteroids) {
-		while (Collision.testRectangle(position, 0, 0, state.getWidth(), state.getHeight())) {
+	/**
+	 * Turns the network outputs into the set of actions the ship takes.
+	 *
+	 * @return Some combination of {@link #SHOOT}, {@link #BOOST}, {@link #TURN_LEFT} and
+	 * {@link #TURN_RIGHT}.
+	 */
+	public static int decide(float[] actions) {
+		// 0 = shoot, 1 = boost, 2 = turn-left, 3 = turn-right
+		int action = 0;
 
-			for (Asteroid asteroid : asteroids) {
+		if (actions[0] >= THRESHOLD) {
+			action |= SHOOT;
+		}
 
-				if (asteroid.checkCollision(position)) {
-					return asteroid;
-				}
-			}
+		if (actions[1] >= THRESHOLD) {
+			action |= BOOST;
+		}
 
-			position.add(direction);
+		if (actions[2] >= THRESHOLD) {
+			action |= TURN_LEFT;
 		}
 
-		return null;
+		if (actions[3] >= THRESHOLD) {
+			action |= TURN_RIGHT;
+		}
+
+		return action;
 	}
 
-	public void performAction(float[] actions) {
-		// 0 = shoot, 1 = boost, 2 = turn-left, 3 = turn-right
+	/**
+	 * Has the ship take the given actions, as returned by {@link #decide(float[])}.
+	 */
+	public void act(int action) {
 
-		if (actions[0] >= THRESHOLD) {
+		this.action = action;
+
+		if ((action & SHOOT) != 0) {
 			ship.startShooting();
 		} else {
 			ship.stopShooting();
 		}
 
-		if (actions[1] >= THRESHOLD) {
+		if ((action & BOOST) != 0) {
 			ship.boost();
 		} else {
 			ship.boostOff();
 		}
 
-		if (actions[2] < THRESHOLD && actions[3] < THRESHOLD) {
+		if ((action & (TURN_LEFT | TURN_RIGHT)) == 0) {
 			ship.stopRotation();
 		} else {
-			if (actions[2] >= THRESHOLD) {
+			if ((action & TURN_LEFT) != 0) {
 				ship.rotateLeft();
 			}
 
-			if (actions[3] >= THRESHOLD) {
+			if ((action & TURN_RIGHT) != 0) {
 				ship.rotateRight();
 			}
 		}
 	}
 
+	/**
+	 * @return The actions the ship last took.
+	 */
+	public int getAction() {
+		return action;
+	}
+
+	public Vector2[] getSight() {
+		return sight;
+	}
+
 	private float calculateFitness() {
 		float fitness = state.getScore();
 		// Factor in the amount of time the ship stayed alive for.
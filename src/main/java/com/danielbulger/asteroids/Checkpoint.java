@@ -0,0 +1,121 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A copy of the population at the start of a generation, enough to carry on training from that
+ * point after a restart.
+ * <p>
+ * Only the genomes are stored. {@link com.danielbulger.neat.Evolution} doesn't expose its species
+ * or innovation history, so a resumed run classifies the genomes into brand new species when it
+ * next evolves, losing how long each species had gone without improving, and hands out innovation
+ * numbers afresh, so a structural mutation made after the resume can be numbered differently from
+ * the same one made before it.
+ */
+public class Checkpoint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @return The file following {@code --resume} in the arguments, or null if there isn't one.
+	 */
+	public static Path getResumePath(String[] args) {
+
+		for (int i = 0; i < args.length; ++i) {
+			if ("--resume".equals(args[i])) {
+				if (i + 1 >= args.length) {
+					throw new IllegalArgumentException("--resume needs a checkpoint file");
+				}
+
+				return Path.of(args[i + 1]);
+			}
+		}
+
+		return null;
+	}
+
+	public static Checkpoint read(Path path) throws IOException {
+
+		try (ObjectInputStream input = Serialisation.newInputStream(
+			new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)))
+		)) {
+			return (Checkpoint) input.readObject();
+		} catch (ClassNotFoundException exception) {
+			throw new IOException("Unreadable checkpoint " + path, exception);
+		}
+	}
+
+	private final long seed;
+
+	private final int generation;
+
+	private final List<Genome> genomes;
+
+	private final Genome best;
+
+	/**
+	 * Copies the genomes so they can be written out while the live population carries on
+	 * evolving.
+	 *
+	 * @param generation The number of generations played before this one.
+	 */
+	public Checkpoint(long seed, int generation, List<Genome> genomes, Genome best) {
+		this.seed = seed;
+		this.generation = generation;
+		this.genomes = new ArrayList<>(genomes.size());
+		this.best = new Genome(best);
+
+		for (final Genome genome : genomes) {
+			this.genomes.add(new Genome(genome));
+		}
+	}
+
+	/**
+	 * Writes to a temporary file alongside {@code path} and moves it into place, so a crash
+	 * part way through never leaves a truncated checkpoint behind.
+	 */
+	public void write(Path path) throws IOException {
+
+		final Path absolute = path.toAbsolutePath();
+		final Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+
+		try (OutputStream file = Files.newOutputStream(temp);
+			 ObjectOutputStream output = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(file)))) {
+			output.writeObject(this);
+		}
+
+		Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getGeneration() {
+		return generation;
+	}
+
+	public List<Genome> getGenomes() {
+		return genomes;
+	}
+
+	public Genome getBest() {
+		return best;
+	}
+}
@@ -0,0 +1,77 @@
+package com.danielbulger.asteroids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes checkpoints on a background thread so training never waits on the disk.
+ * <p>
+ * At most one checkpoint waits behind the one being written, if the disk falls behind the older
+ * waiting checkpoint is dropped in favour of the newer one.
+ */
+public class CheckpointWriter implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CheckpointWriter.class.getName());
+
+	private final Path path;
+
+	private final ThreadPoolExecutor executor;
+
+	public CheckpointWriter(Path path) {
+		this.path = path;
+		this.executor = new ThreadPoolExecutor(
+			1, 1, 0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(1),
+			runnable -> {
+				final Thread thread = new Thread(runnable, "checkpoint-writer");
+				thread.setDaemon(true);
+				return thread;
+			},
+			new ThreadPoolExecutor.DiscardOldestPolicy()
+		);
+	}
+
+	public void submit(Checkpoint checkpoint) {
+		executor.execute(() -> write(checkpoint));
+	}
+
+	private void write(Checkpoint checkpoint) {
+
+		final long start = System.nanoTime();
+
+		try {
+			checkpoint.write(path);
+		} catch (IOException exception) {
+			LOG.error("Failed to write checkpoint for generation {} to {}", checkpoint.getGeneration(), path, exception);
+			return;
+		}
+
+		LOG.info(
+			"Wrote checkpoint for generation {} to {} in {} ms",
+			checkpoint.getGeneration(),
+			path,
+			TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+		);
+	}
+
+	/**
+	 * Waits for any checkpoint still being written before stopping the writer thread.
+	 */
+	@Override
+	public void close() {
+
+		executor.shutdown();
+
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -14,13 +14,21 @@ public class Collision {
 	}
 
 	public static boolean testCircle(Vector2 c1, double r1, Vector2 c2, double r2) {
-		final double distance = c2.distance(c1);
+		return testCircle(c1.getX(), c1.getY(), r1, c2.getX(), c2.getY(), r2);
+	}
+
+	public static boolean testCircle(double x1, double y1, double r1, double x2, double y2, double r2) {
+		final double distance = distance(x1, y1, x2, y2);
 
 		return distance < (r1 + r2);
 	}
 
 	public static boolean testLineAndCircle(Vector2 circle, double radius, Vector2 l1, Vector2 l2) {
-		if (isPointInCircle(circle, radius, l1) || isPointInCircle(circle, radius, l2)) {
+		return testLineAndCircle(circle.getX(), circle.getY(), radius, l1, l2);
+	}
+
+	public static boolean testLineAndCircle(double circleX, double circleY, double radius, Vector2 l1, Vector2 l2) {
+		if (isPointInCircle(circleX, circleY, radius, l1) || isPointInCircle(circleX, circleY, radius, l2)) {
 			return true;
 		}
 
@@ -29,30 +37,86 @@ public class Collision {
 
 		final double length = l1.distance(l2);
 		final double dot = (
-			((circle.getX() - l1.getX()) * deltaX) +
-			((circle.getY() - l1.getY()) * deltaY)
+			((circleX - l1.getX()) * deltaX) +
+			((circleY - l1.getY()) * deltaY)
 		) / Math.pow(length, 2);
 
-		final Vector2 closest = new Vector2(
-			l1.getX() + (dot * deltaX),
-			l1.getY() + (dot * deltaY)
-		);
+		final double closestX = l1.getX() + (dot * deltaX);
+		final double closestY = l1.getY() + (dot * deltaY);
 
-		if (!linePoint(l1, l2, closest)) {
+		if (!linePoint(l1, l2, closestX, closestY)) {
 			return false;
 		}
 
-		return closest.distance(circle) <= radius;
+		return distance(closestX, closestY, circleX, circleY) <= radius;
+
+	}
+
+	/**
+	 * The same test as {@link #testCircle(double, double, double, double, double, double)} done with
+	 * single precision arithmetic.
+	 */
+	public static boolean testCircle(float x1, float y1, float r1, float x2, float y2, float r2) {
+		return distance(x1, y1, x2, y2) < (r1 + r2);
+	}
+
+	/**
+	 * The same test as {@link #testLineAndCircle(double, double, double, Vector2, Vector2)} done
+	 * with single precision arithmetic.
+	 */
+	public static boolean testLineAndCircle(float circleX, float circleY, float radius, Vector2 l1, Vector2 l2) {
+
+		final float x1 = (float) l1.getX();
+		final float y1 = (float) l1.getY();
+		final float x2 = (float) l2.getX();
+		final float y2 = (float) l2.getY();
+
+		if (distance(x1, y1, circleX, circleY) <= radius || distance(x2, y2, circleX, circleY) <= radius) {
+			return true;
+		}
+
+		final float deltaX = x2 - x1;
+		final float deltaY = y2 - y1;
 
+		final float length = distance(x1, y1, x2, y2);
+		final float dot = (((circleX - x1) * deltaX) + ((circleY - y1) * deltaY)) / (length * length);
+
+		final float closestX = x1 + (dot * deltaX);
+		final float closestY = y1 + (dot * deltaY);
+
+		final float d = distance(closestX, closestY, x1, y1) + distance(closestX, closestY, x2, y2);
+		final float error = 0.1f;
+
+		if (d < length - error || d > length + error) {
+			return false;
+		}
+
+		return distance(closestX, closestY, circleX, circleY) <= radius;
 	}
 
-	private static boolean isPointInCircle(Vector2 circle, double radius, Vector2 point) {
-		final double dist = point.distance(circle);
+	private static boolean isPointInCircle(double circleX, double circleY, double radius, Vector2 point) {
+		final double dist = distance(point.getX(), point.getY(), circleX, circleY);
 		return dist <= radius;
 	}
 
-	private static boolean linePoint(Vector2 l1, Vector2 l2, Vector2 p) {
-		final double d = p.distance(l1) + p.distance(l2);
+	private static double distance(double x1, double y1, double x2, double y2) {
+		final double dx = (x2 - x1) * (x2 - x1);
+
+		final double dy = (y2 - y1) * (y2 - y1);
+
+		return Math.sqrt(dx + dy);
+	}
+
+	private static float distance(float x1, float y1, float x2, float y2) {
+		final float dx = (x2 - x1) * (x2 - x1);
+
+		final float dy = (y2 - y1) * (y2 - y1);
+
+		return (float) Math.sqrt(dx + dy);
+	}
+
+	private static boolean linePoint(Vector2 l1, Vector2 l2, double x, double y) {
+		final double d = distance(x, y, l1.getX(), l1.getY()) + distance(x, y, l2.getX(), l2.getY());
 		final double len = l2.distance(l1);
 
 		final double error = 0.1;
@@ -0,0 +1,425 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the episodes of a generation on {@link EvaluationWorker} processes, speaking the
+ * {@link WorkerProtocol} over TCP.
+ * <p>
+ * {@code evaluation.workers} processes are started on this machine, and workers started by hand on
+ * other machines can connect at any time, as long as {@code evaluation.coordinator-address} is
+ * reachable from them. Each worker is kept twice as many episodes as it has threads, so it never
+ * waits on the network between them.
+ * <p>
+ * A worker that drops its connection, or goes {@link WorkerProtocol#TIMEOUT_MILLIS} without a
+ * result or heartbeat, is presumed dead and the episodes it had are handed to the other workers.
+ * Games are deterministic, so an episode played twice scores the same wherever it is played, unless
+ * {@code generation.time-budget-ms} cuts it short at a different tick. For the same reason an
+ * episode a worker reports it couldn't play is never handed on, it fails the generation instead.
+ * <p>
+ * Everything to do with the generation is only touched by the thread calling
+ * {@link #evaluate(Generation)}, the socket threads just queue events for it to run.
+ */
+public class DistributedEvaluator implements GenerationEvaluator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DistributedEvaluator.class.getName());
+
+	private final ServerSocket server;
+
+	private final Settings settings;
+
+	private final List<Process> processes = new ArrayList<>();
+
+	private final BlockingQueue<Runnable> events = new LinkedBlockingQueue<>();
+
+	private final List<Worker> workers = new ArrayList<>();
+
+	// Every open connection, including workers still shaking hands, so closing can reach them all.
+	private final Set<Worker> connections = ConcurrentHashMap.newKeySet();
+
+	private final Deque<Integer> unsent = new ArrayDeque<>();
+
+	private final Map<Genome, byte[]> serialised = new IdentityHashMap<>();
+
+	private Generation generation;
+
+	// Whether each episode of the generation has its result.
+	private boolean[] done;
+
+	private int remaining;
+
+	private int parallelism;
+
+	public DistributedEvaluator(Settings settings) throws IOException {
+		this.settings = settings;
+		this.server = new ServerSocket(
+			settings.getCoordinatorPort(), 0, InetAddress.getByName(settings.getCoordinatorAddress())
+		);
+
+		final Thread acceptor = new Thread(this::accept, "worker-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+
+		LOG.info("Waiting for evaluation workers on {}", server.getLocalSocketAddress());
+
+		final int threads = Math.max(1, settings.getThreads() / Math.max(1, settings.getWorkers()));
+
+		for (int i = 0; i < settings.getWorkers(); ++i) {
+			processes.add(launch(threads));
+		}
+
+		this.parallelism = Math.max(1, settings.getWorkers() * threads);
+	}
+
+	private Process launch(int threads) throws IOException {
+
+		final InetAddress address = server.getInetAddress().isAnyLocalAddress()
+			? InetAddress.getLoopbackAddress()
+			: server.getInetAddress();
+
+		final List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-Djava.awt.headless=true");
+		command.addAll(getModuleArguments());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(EvaluationWorker.class.getName());
+		command.add(address.getHostAddress());
+		command.add(Integer.toString(server.getLocalPort()));
+		command.add(Integer.toString(threads));
+
+		return new ProcessBuilder(command).inheritIO().start();
+	}
+
+	/**
+	 * @return The modules this JVM was started with, such as jdk.incubator.vector for the SIMD
+	 * integrator, which the workers need too.
+	 */
+	private static List<String> getModuleArguments() {
+
+		final List<String> arguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+		final List<String> modules = new ArrayList<>();
+
+		for (int i = 0; i < arguments.size(); ++i) {
+			if (arguments.get(i).startsWith("--add-modules=")) {
+				modules.add(arguments.get(i));
+			} else if (arguments.get(i).equals("--add-modules") && i + 1 < arguments.size()) {
+				modules.add(arguments.get(i));
+				modules.add(arguments.get(++i));
+			}
+		}
+
+		return modules;
+	}
+
+	private void accept() {
+		while (!server.isClosed()) {
+			try {
+				final Socket socket = server.accept();
+
+				try {
+					new Worker(socket).start();
+				} catch (IOException exception) {
+					LOG.warn("Turned away {}: {}", socket.getRemoteSocketAddress(), exception.getMessage());
+					socket.close();
+				}
+
+			} catch (IOException exception) {
+				if (!server.isClosed()) {
+					LOG.warn("Failed to accept an evaluation worker", exception);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void evaluate(Generation generation) throws InterruptedException {
+
+		this.generation = generation;
+		this.done = new boolean[generation.size()];
+		this.remaining = generation.getPendingCount();
+
+		for (int i = 0; i < generation.getPendingCount(); ++i) {
+			unsent.add(generation.getPending(i));
+		}
+
+		try {
+			while (remaining > 0) {
+
+				dispatch();
+
+				final Runnable event = events.poll(WorkerProtocol.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+				if (event != null) {
+					event.run();
+				} else if (workers.isEmpty()) {
+					waitForWorkers();
+				}
+			}
+
+			generation.checkFailure();
+
+		} finally {
+			this.generation = null;
+			this.done = null;
+			unsent.clear();
+			serialised.clear();
+		}
+
+		parallelism = Math.max(1, workers.stream().mapToInt(worker -> worker.threads).sum());
+	}
+
+	private void waitForWorkers() {
+
+		if (settings.getWorkers() > 0 && processes.stream().noneMatch(Process::isAlive)) {
+			throw new IllegalStateException("Every evaluation worker has died");
+		}
+
+		LOG.warn("Still waiting for evaluation workers on {}", server.getLocalSocketAddress());
+	}
+
+	/**
+	 * Tops every worker up with episodes to play.
+	 */
+	private void dispatch() {
+
+		for (final Worker worker : new ArrayList<>(workers)) {
+			while (worker.inFlight.size() < 2 * worker.threads && !unsent.isEmpty()) {
+
+				final int index = unsent.poll();
+
+				try {
+					worker.send(index);
+				} catch (IOException exception) {
+					unsent.addFirst(index);
+					die(worker, exception);
+					break;
+				}
+			}
+		}
+	}
+
+	private byte[] getSerialised(int index) {
+		return serialised.computeIfAbsent(generation.getGenome(index), WorkerProtocol::serialise);
+	}
+
+	private void join(Worker worker) {
+		workers.add(worker);
+		LOG.info("Evaluation worker {} joined with {} threads", worker.address, worker.threads);
+	}
+
+	private void die(Worker worker, IOException cause) {
+
+		if (!workers.remove(worker)) {
+			return;
+		}
+
+		worker.close();
+
+		LOG.warn(
+			"Evaluation worker {} died, handing its {} episodes to the others: {}",
+			worker.address, worker.inFlight.size(), cause.toString()
+		);
+
+		for (final int index : worker.inFlight) {
+			unsent.addFirst(index);
+		}
+
+		worker.inFlight.clear();
+	}
+
+	private void complete(Worker worker, int index, float fitness, int ticks, boolean stopped, long busyNanos) {
+
+		// Anything else is from an episode that was already handed to another worker.
+		if (generation == null || !worker.inFlight.remove(index) || done[index]) {
+			return;
+		}
+
+		generation.setResult(index, fitness, ticks);
+		generation.addBusyTime(busyNanos);
+
+		if (stopped) {
+			generation.addTimedOut(index);
+		}
+
+		done[index] = true;
+		--remaining;
+	}
+
+	private void fail(Worker worker, int index, String failure) {
+
+		if (generation == null || !worker.inFlight.remove(index) || done[index]) {
+			return;
+		}
+
+		generation.fail(index, new IllegalStateException(
+			"Evaluation worker " + worker.address + " failed to play the episode: " + failure
+		));
+
+		done[index] = true;
+		--remaining;
+	}
+
+	@Override
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	@Override
+	public void close() {
+
+		try {
+			server.close();
+		} catch (IOException exception) {
+			LOG.warn("Failed to stop listening for evaluation workers", exception);
+		}
+
+		for (final Worker worker : connections) {
+			worker.close();
+		}
+
+		workers.clear();
+		events.clear();
+
+		for (final Process process : processes) {
+			process.destroy();
+		}
+	}
+
+	private class Worker {
+
+		private final Socket socket;
+
+		private final Object address;
+
+		private final DataInputStream input;
+
+		private final DataOutputStream output;
+
+		// Only known once the worker has said hello, before it joins.
+		private int threads;
+
+		// The episodes sent to this worker that it hasn't returned yet.
+		private final Set<Integer> inFlight = new HashSet<>();
+
+		private Worker(Socket socket) throws IOException {
+			this.socket = socket;
+			this.address = socket.getRemoteSocketAddress();
+
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(WorkerProtocol.TIMEOUT_MILLIS);
+
+			this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+			connections.add(this);
+		}
+
+		/**
+		 * Shakes hands and then reads on a thread of its own, so a slow worker never holds up the
+		 * others.
+		 */
+		private void start() {
+			final Thread reader = new Thread(this::read, "worker-reader-" + address);
+			reader.setDaemon(true);
+			reader.start();
+		}
+
+		private void send(int index) throws IOException {
+
+			final long deadline = generation.getDeadline();
+
+			output.writeByte(WorkerProtocol.TASK);
+			output.writeInt(index);
+			output.writeLong(generation.getSeed(index));
+			output.writeLong(deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime());
+			WorkerProtocol.writeBytes(output, getSerialised(index));
+			output.flush();
+
+			inFlight.add(index);
+		}
+
+		private void read() {
+
+			try {
+				threads = Math.max(1, WorkerProtocol.readHello(input));
+				WorkerProtocol.writeSettings(output, settings.getProperties());
+			} catch (IOException exception) {
+				LOG.warn("Turned away {}: {}", address, exception.getMessage());
+				close();
+				return;
+			}
+
+			events.add(() -> join(this));
+
+			try {
+				while (true) {
+
+					final byte type = input.readByte();
+
+					if (type == WorkerProtocol.HEARTBEAT) {
+						continue;
+					}
+
+					if (type == WorkerProtocol.ERROR) {
+						final int index = input.readInt();
+						final String failure = WorkerProtocol.readError(input);
+
+						events.add(() -> fail(this, index, failure));
+						continue;
+					}
+
+					if (type != WorkerProtocol.RESULT) {
+						throw new IOException("Unexpected message " + type);
+					}
+
+					final int index = input.readInt();
+					final float fitness = input.readFloat();
+					final int ticks = input.readInt();
+					final boolean stopped = input.readBoolean();
+					final long busyNanos = input.readLong();
+
+					events.add(() -> complete(this, index, fitness, ticks, stopped, busyNanos));
+				}
+			} catch (IOException exception) {
+				events.add(() -> die(this, exception));
+			}
+		}
+
+		private void close() {
+
+			connections.remove(this);
+
+			try {
+				socket.close();
+			} catch (IOException ignored) {
+				// Already as closed as it is going to get.
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.asteroids.jfr.EpisodeEvent;
+import com.danielbulger.neat.Genome;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A single game played by a genome as part of a {@link Generation}.
+ * <p>
+ * The game can be played in slices of ticks, so an evaluator is free to interleave it with
+ * other episodes or move it between threads.
+ */
+public class Episode {
+
+	private static final int DEADLINE_CHECK_MASK = 0xFF;
+
+	private final Generation generation;
+
+	private final int index;
+
+	private final Game game;
+
+	private final ReplayRecorder recorder;
+
+	private final long seed;
+
+	private final EpisodeEvent event = new EpisodeEvent();
+
+	private boolean finished = false;
+
+	Episode(Generation generation, int index, Genome genome, long seed) {
+		this.generation = generation;
+		this.index = index;
+		this.seed = seed;
+		this.game = new Game(Trainer.WIDTH, Trainer.HEIGHT, genome, generation.getSettings(), seed);
+		this.recorder = generation.getReplayDirectory() == null ? null : record(generation, index, seed);
+
+		event.begin();
+	}
+
+	private ReplayRecorder record(Generation generation, int index, long seed) {
+
+		final ReplayRecorder recorder;
+
+		try {
+			recorder = new ReplayRecorder(
+				generation.getReplayDirectory().resolve("episode-" + index + ".replay"),
+				game,
+				seed,
+				generation.getSettings()
+			);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		game.setRecorder(recorder);
+
+		return recorder;
+	}
+
+	/**
+	 * Plays up to the given number of ticks.
+	 *
+	 * @return Whether the episode has finished and its fitness has been recorded.
+	 */
+	public boolean play(int ticks) {
+
+		if (finished) {
+			return true;
+		}
+
+		final long start = System.nanoTime();
+
+		try {
+
+			for (int i = 0; i < ticks; ++i) {
+
+				if (settle()) {
+					return true;
+				}
+
+				game.update();
+			}
+
+			return settle();
+
+		} finally {
+			generation.addBusyTime(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records the result if the game is over or has run out of time.
+	 *
+	 * @return Whether the episode has finished.
+	 */
+	private boolean settle() {
+
+		if (finished) {
+			return true;
+		}
+
+		if (game.isFinished()) {
+			finish();
+			return true;
+		}
+
+		// Only check the clock every so often, it doesn't need to be exact.
+		if ((game.getCurrentTick() & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() >= generation.getDeadline()) {
+			generation.addTimedOut(index);
+			event.timedOut = true;
+			finish();
+			return true;
+		}
+
+		return false;
+	}
+
+	public void playToEnd() {
+		play(Integer.MAX_VALUE);
+	}
+
+	private void finish() {
+		game.finish();
+		generation.setResult(index, game.getFitness(), game.getCurrentTick());
+		finished = true;
+
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.episode = index;
+			event.seed = seed;
+			event.ticks = game.getCurrentTick();
+			event.fitness = game.getFitness();
+			event.commit();
+		}
+
+		if (recorder != null) {
+			try {
+				recorder.close();
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+	}
+
+	/**
+	 * @return The index of the episode within its generation.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public Game getGame() {
+		return game;
+	}
+}
@@ -0,0 +1,186 @@
+package com.danielbulger.asteroids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays episodes for a {@link DistributedEvaluator}, on the same machine or another one.
+ * <p>
+ * Usage: {@code EvaluationWorker <host> <port> [threads]}. The worker runs until the coordinator
+ * goes away. An episode it fails to play is reported back to the coordinator, which stops training
+ * with the failure, the worker itself carries on.
+ */
+public class EvaluationWorker {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EvaluationWorker.class.getName());
+
+	public static void main(final String[] args) throws Exception {
+
+		if (args.length < 2) {
+			throw new IllegalArgumentException("Usage: EvaluationWorker <host> <port> [threads]");
+		}
+
+		final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+			socket.setTcpNoDelay(true);
+			new EvaluationWorker(socket, threads).run();
+		}
+	}
+
+	private static ThreadFactory daemons(String name) {
+		return runnable -> {
+			final Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private final Socket socket;
+
+	private final DataInputStream input;
+
+	// Shared by the players and the heartbeat, so only written while holding its lock.
+	private final DataOutputStream output;
+
+	private final int threads;
+
+	private final ExecutorService players;
+
+	private final ScheduledExecutorService heartbeat;
+
+	private Settings settings;
+
+	private EvaluationWorker(Socket socket, int threads) throws IOException {
+		this.socket = socket;
+		this.threads = threads;
+		this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		this.players = Executors.newFixedThreadPool(threads, daemons("episode-player"));
+		this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemons("worker-heartbeat"));
+	}
+
+	private void run() throws IOException {
+
+		synchronized (output) {
+			WorkerProtocol.writeHello(output, threads);
+		}
+
+		if (input.readByte() != WorkerProtocol.SETTINGS) {
+			throw new IOException("Expected the settings from the coordinator");
+		}
+
+		settings = Settings.fromProperties(WorkerProtocol.readSettings(input));
+
+		LOG.info("Playing episodes for {} on {} threads", socket.getRemoteSocketAddress(), threads);
+
+		heartbeat.scheduleAtFixedRate(
+			this::sendHeartbeat, 0, WorkerProtocol.HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS
+		);
+
+		try {
+			while (true) {
+
+				final byte type;
+
+				try {
+					type = input.readByte();
+				} catch (EOFException exception) {
+					LOG.info("Coordinator has finished");
+					return;
+				}
+
+				if (type != WorkerProtocol.TASK) {
+					throw new IOException("Unexpected message " + type);
+				}
+
+				final int index = input.readInt();
+				final long seed = input.readLong();
+				final long budget = input.readLong();
+				final byte[] genome = WorkerProtocol.readBytes(input);
+
+				players.execute(() -> play(index, seed, budget, genome));
+			}
+		} finally {
+			heartbeat.shutdownNow();
+			players.shutdownNow();
+		}
+	}
+
+	private void play(int index, long seed, long budget, byte[] genome) {
+
+		final long deadline = budget == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + budget;
+
+		final Generation generation;
+
+		try {
+			generation = new Generation(
+				List.of(WorkerProtocol.deserialise(genome)), new long[]{seed}, settings, deadline
+			);
+
+			generation.newEpisode(0).playToEnd();
+
+		} catch (IOException | RuntimeException | Error exception) {
+			LOG.error("Failed to play episode {}", index, exception);
+			sendError(index, exception);
+			return;
+		}
+
+		try {
+			synchronized (output) {
+				output.writeByte(WorkerProtocol.RESULT);
+				output.writeInt(index);
+				output.writeFloat(generation.getFitness(0));
+				output.writeInt(generation.getLength(0));
+				output.writeBoolean(generation.isStopped(0));
+				output.writeLong(generation.getBusyTime());
+				output.flush();
+			}
+		} catch (IOException exception) {
+			close();
+		}
+	}
+
+	private void sendError(int index, Throwable cause) {
+		try {
+			synchronized (output) {
+				WorkerProtocol.writeError(output, index, cause);
+			}
+		} catch (IOException exception) {
+			close();
+		}
+	}
+
+	private void sendHeartbeat() {
+		try {
+			synchronized (output) {
+				output.writeByte(WorkerProtocol.HEARTBEAT);
+				output.flush();
+			}
+		} catch (IOException exception) {
+			close();
+		}
+	}
+
+	private void close() {
+		try {
+			socket.close();
+		} catch (IOException ignored) {
+			// Already as closed as it is going to get.
+		}
+	}
+}
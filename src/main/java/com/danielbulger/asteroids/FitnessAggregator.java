@@ -0,0 +1,79 @@
+package com.danielbulger.asteroids;
+
+import java.util.Arrays;
+
+/**
+ * Combines the fitness a genome earned over several episodes into the single value used for
+ * selection.
+ * <p>
+ * Parsed from {@code mean}, {@code min} or {@code p<percentile>}, e.g. {@code p25} for the lower
+ * quartile, which rewards genomes that play consistently rather than getting lucky once.
+ */
+public class FitnessAggregator {
+
+	private static final int MEAN = -1;
+
+	private static final int MIN = 0;
+
+	public static FitnessAggregator parse(String value) {
+
+		final String name = value.trim().toLowerCase();
+
+		if (name.equals("mean")) {
+			return new FitnessAggregator(name, MEAN);
+		}
+
+		if (name.equals("min")) {
+			return new FitnessAggregator(name, MIN);
+		}
+
+		if (name.startsWith("p")) {
+
+			final int percentile = Integer.parseInt(name.substring(1));
+
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100: " + value);
+			}
+
+			return new FitnessAggregator(name, percentile);
+		}
+
+		throw new IllegalArgumentException("Unknown fitness aggregate: " + value);
+	}
+
+	private final String name;
+
+	private final int percentile;
+
+	private FitnessAggregator(String name, int percentile) {
+		this.name = name;
+		this.percentile = percentile;
+	}
+
+	public float aggregate(float[] values, int offset, int count) {
+
+		if (percentile == MEAN) {
+
+			double total = 0;
+
+			for (int i = offset; i < offset + count; ++i) {
+				total += values[i];
+			}
+
+			return (float) (total / count);
+		}
+
+		final float[] sorted = Arrays.copyOfRange(values, offset, offset + count);
+		Arrays.sort(sorted);
+
+		// Nearest-rank percentile, so p0 is the minimum and p100 the maximum.
+		final int rank = (int) Math.ceil((percentile / 100.0) * count);
+
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,158 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers how an episode played out for a given genome and seed, so genomes that come through
+ * evolution unchanged, such as clones and elites, don't have to play the same game again.
+ * <p>
+ * Games are deterministic, so the same network and seed always give the same result. Genomes are
+ * told apart by a SHA-256 fingerprint of their serialised form with the fitness cleared, as NEAT
+ * doesn't expose the connections and weights directly. Anything else a genome serialises only
+ * makes the fingerprint stricter, costing a miss rather than a wrong result. The least recently
+ * used entries are evicted once the cache is full.
+ * <p>
+ * Only used from the training thread, so it isn't thread safe.
+ */
+public class FitnessCache {
+
+	private final Map<Key, Result> entries;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	private long savedTicks = 0;
+
+	public FitnessCache(int capacity) {
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	public static byte[] fingerprint(Genome genome) {
+
+		final Genome copy = new Genome(genome);
+		copy.setFitness(0);
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(copy);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException("SHA-256 is always available", exception);
+		}
+	}
+
+	/**
+	 * @return The result of the episode if it has been played before, or null.
+	 */
+	public Result get(byte[] fingerprint, long seed) {
+
+		final Result result = entries.get(new Key(fingerprint, seed));
+
+		if (result == null) {
+			++misses;
+		} else {
+			++hits;
+			savedTicks += result.getTicks();
+		}
+
+		return result;
+	}
+
+	public void put(byte[] fingerprint, long seed, float fitness, int ticks) {
+		entries.put(new Key(fingerprint, seed), new Result(fitness, ticks));
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return The total ticks that didn't have to be played thanks to the cache.
+	 */
+	public long getSavedTicks() {
+		return savedTicks;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public static class Result {
+
+		private final float fitness;
+
+		private final int ticks;
+
+		private Result(float fitness, int ticks) {
+			this.fitness = fitness;
+			this.ticks = ticks;
+		}
+
+		public float getFitness() {
+			return fitness;
+		}
+
+		public int getTicks() {
+			return ticks;
+		}
+	}
+
+	private static class Key {
+
+		private final byte[] fingerprint;
+
+		private final long seed;
+
+		private final int hash;
+
+		private Key(byte[] fingerprint, long seed) {
+			this.fingerprint = fingerprint;
+			this.seed = seed;
+			this.hash = (31 * Arrays.hashCode(fingerprint)) + Long.hashCode(seed);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (!(other instanceof Key)) {
+				return false;
+			}
+
+			final Key key = (Key) other;
+
+			return seed == key.seed && Arrays.equals(fingerprint, key.fingerprint);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.danielbulger.asteroids;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+
+/**
+ * Plays each episode start to finish as one task on a fixed pool of threads.
+ */
+public class FixedPoolEvaluator implements GenerationEvaluator {
+
+	private final int parallelism;
+
+	private final ExecutorService workers;
+
+	public FixedPoolEvaluator(int parallelism) {
+		this.parallelism = parallelism;
+		this.workers = Executors.newFixedThreadPool(parallelism);
+	}
+
+	@Override
+	public void evaluate(Generation generation) {
+
+		// Each call has its own phaser, so generations from several trainers can share the pool.
+		final Phaser phaser = new Phaser(1);
+		phaser.bulkRegister(generation.getPendingCount());
+
+		for (int i = 0; i < generation.getPendingCount(); ++i) {
+			workers.submit(new BrainGame(phaser, generation, generation.getPending(i)));
+		}
+
+		// Wait until all other genomes have finished playing.
+		phaser.arriveAndAwaitAdvance();
+
+		generation.checkFailure();
+	}
+
+	@Override
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	@Override
+	public void close() {
+		workers.shutdownNow();
+	}
+
+	private static class BrainGame implements Runnable {
+
+		private final Phaser phaser;
+
+		private final Generation generation;
+
+		private final int index;
+
+		private BrainGame(Phaser phaser, Generation generation, int index) {
+			this.phaser = phaser;
+			this.generation = generation;
+			this.index = index;
+		}
+
+		@Override
+		public void run() {
+			try {
+				generation.newEpisode(index).playToEnd();
+			} catch (RuntimeException | Error exception) {
+				generation.fail(index, exception);
+			} finally {
+				phaser.arriveAndDeregister();
+			}
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.danielbulger.asteroids;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays episodes in slices of ticks on a work-stealing pool.
+ * <p>
+ * After each slice an unfinished episode forks its own continuation, so a worker that runs out
+ * of episodes steals the oldest pending slices from the others instead of sitting idle while a
+ * few long games finish.
+ */
+public class ForkJoinEvaluator implements GenerationEvaluator {
+
+	private final ForkJoinPool pool;
+
+	private final int sliceTicks;
+
+	public ForkJoinEvaluator(int parallelism, int sliceTicks) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.sliceTicks = sliceTicks;
+	}
+
+	@Override
+	public void evaluate(Generation generation) throws InterruptedException {
+
+		final CountDownLatch remaining = new CountDownLatch(generation.getPendingCount());
+
+		for (int i = 0; i < generation.getPendingCount(); ++i) {
+			pool.execute(new Slice(generation, generation.getPending(i), remaining));
+		}
+
+		remaining.await();
+
+		generation.checkFailure();
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public void close() {
+		pool.shutdownNow();
+	}
+
+	private class Slice extends RecursiveAction {
+
+		private final Generation generation;
+
+		private final int index;
+
+		private final CountDownLatch remaining;
+
+		private Episode episode;
+
+		private Slice(Generation generation, int index, CountDownLatch remaining) {
+			this.generation = generation;
+			this.index = index;
+			this.remaining = remaining;
+		}
+
+		private Slice(Slice previous) {
+			this(previous.generation, previous.index, previous.remaining);
+			this.episode = previous.episode;
+		}
+
+		@Override
+		protected void compute() {
+
+			boolean finished = true;
+
+			try {
+
+				if (episode == null) {
+					episode = generation.newEpisode(index);
+				}
+
+				finished = episode.play(sliceTicks);
+
+			} catch (RuntimeException | Error exception) {
+				generation.fail(index, exception);
+			} finally {
+				if (finished) {
+					remaining.countDown();
+				}
+			}
+
+			if (!finished) {
+				new Slice(this).fork();
+			}
+		}
+	}
+}
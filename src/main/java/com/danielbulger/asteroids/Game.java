@@ -1,44 +1,63 @@
 package com.danielbulger.asteroids;
 
-import com.danielbulger.asteroids.entity.Asteroid;
-import com.danielbulger.asteroids.entity.Bullet;
-import com.danielbulger.asteroids.entity.Entity;
+import com.danielbulger.asteroids.entity.AsteroidStore;
+import com.danielbulger.asteroids.entity.BulletStore;
 import com.danielbulger.asteroids.entity.Ship;
+import com.danielbulger.asteroids.jfr.CollisionEvent;
+import com.danielbulger.asteroids.jfr.Sampling;
 import com.danielbulger.neat.Genome;
 
-import java.awt.*;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
+import java.nio.ByteBuffer;
 
-public class Game implements KeyListener {
+public class Game {
 
 	private static final int ASTEROID_START_HEALTH = 3;
 
+	private static final double GRID_CELL_SIZE = 100;
+
 	private final int width;
 	private final int height;
 
 	private final Ship ship;
 
-	private final Random random = new Random();
+	private final SplitMix64 random;
+
+	private final AsteroidStore asteroids;
+
+	private final BulletStore bullets;
+
+	private final SpatialGrid grid;
 
-	private final List<Asteroid> asteroids = new ArrayList<>();
+	private boolean[] destroyed = new boolean[16];
 
-	private final List<Bullet> bullets = new ArrayList<>();
+	private int[] hits = new int[16];
 
 	private final GameState state;
 
 	private final Brain brain;
 
-	public Game(int width, int height, Genome genome) {
+	private final Settings settings;
+
+	private final boolean singlePrecision;
+
+	private ReplayRecorder recorder;
+
+	/**
+	 * @param seed Drives every random decision in the game, so the same seed and genome always
+	 *             play out the same way.
+	 */
+	public Game(int width, int height, Genome genome, Settings settings, long seed) {
 		this.width = width;
 		this.height = height;
+		this.settings = settings;
+		this.singlePrecision = settings.getIntegrator().isSinglePrecision();
+		this.random = new SplitMix64(seed);
+		this.asteroids = new AsteroidStore(random, settings.getIntegrator(), settings.isReuseSlots());
+		this.bullets = new BulletStore(settings.getIntegrator(), settings.isReuseSlots());
 		this.state = new GameState(width, height);
 		this.ship = new Ship(this, width / 2.0, height / 2.0);
-		this.brain = new Brain(genome, ship, state);
+		this.brain = new Brain(genome, ship, state, settings);
+		this.grid = new SpatialGrid(width, height, GRID_CELL_SIZE);
 	}
 
 	private void spawnAsteroid() {
@@ -49,7 +68,7 @@ public class Game implements KeyListener {
 		final double velocityX = random.nextDouble();
 		final double velocityY = random.nextDouble();
 
-		asteroids.add(new Asteroid(this, x, y, velocityX, velocityY, ASTEROID_START_HEALTH));
+		asteroids.add(x, y, velocityX, velocityY, ASTEROID_START_HEALTH);
 	}
 
 	public void spawnAsteroids(int count) {
@@ -58,51 +77,148 @@ public class Game implements KeyListener {
 		}
 	}
 
-	public void addBullet(Bullet bullet) {
-		bullets.add(bullet);
+	public void addBullet(double x, double y, double velocityX, double velocityY) {
+		bullets.add(x, y, velocityX, velocityY, state.getTicks());
 		state.addShotFired();
 	}
 
 	public void update() {
 
+		startTick();
+
+		brain.update(asteroids, grid);
+
+		if (recorder != null) {
+			recorder.record(brain.getAction());
+		}
+
+		move();
+		collide();
+	}
+
+	/**
+	 * Plays one tick with the ship taking the given actions instead of whatever the brain would
+	 * decide, which is how a {@link Replay} plays back a recorded game.
+	 */
+	public void update(int action) {
+
+		startTick();
+
+		brain.sense(asteroids, grid);
+		brain.act(action);
+
+		move();
+		collide();
+	}
+
+	private void startTick() {
+
+		if (recorder != null) {
+			recorder.startTick(this);
+		}
+
 		state.addTick();
 
 		if (asteroids.isEmpty()) {
 			spawnAsteroids(5);
+			indexAsteroids();
 		}
+	}
 
-		brain.update(asteroids);
+	private void move() {
 
 		updateEntities();
 
+		indexAsteroids();
+	}
+
+	private void collide() {
+
+		if (Sampling.isSampled(state.getTicks()) && CollisionEvent.PROBE.isEnabled()) {
+			final CollisionEvent event = new CollisionEvent();
+			event.bullets = bullets.size();
+			event.asteroids = asteroids.size();
+			event.begin();
+
+			checkCollisions();
+
+			event.commit();
+		} else {
+			checkCollisions();
+		}
+	}
+
+	private void checkCollisions() {
+
 		checkBulletCollision();
 
 		// Don't bother with the collision detection if the ship is immune.
 		if (!ship.isImmune()) {
-			for (Asteroid asteroid : asteroids) {
-				if (asteroid.checkCollision(ship)) {
-					shipCollision();
-				}
+			checkShipCollision();
+		}
+	}
+
+	private void indexAsteroids() {
+		grid.clear();
+
+		for (int i = 0; i < asteroids.getLimit(); ++i) {
+			if (asteroids.isAlive(i)) {
+				grid.insert(i, asteroids.getX(i), asteroids.getY(i), asteroids.getRadius(i));
 			}
 		}
 	}
 
-	private void updateEntities() {
-		ship.update();
+	private void checkShipCollision() {
 
-		for (final Asteroid entity : asteroids) {
-			entity.update();
+		final Vector2[] points = ship.getPoints();
+
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+
+		for (final Vector2 point : points) {
+			minX = Math.min(minX, point.getX());
+			minY = Math.min(minY, point.getY());
+			maxX = Math.max(maxX, point.getX());
+			maxY = Math.max(maxY, point.getY());
+		}
+
+		final int found = grid.query(minX, minY, maxX, maxY);
+
+		for (int i = 0; i < found; ++i) {
+			if (checkShipCollision(grid.getResult(i), points)) {
+				shipCollision();
+			}
 		}
+	}
+
+	private boolean checkShipCollision(int asteroid, Vector2[] points) {
+
+		for (int i = 0; i < points.length; i += 2) {
 
-		for (Iterator<Bullet> it = bullets.iterator(); it.hasNext(); ) {
-			final Bullet bullet = it.next();
+			final boolean hit = singlePrecision
+				? Collision.testLineAndCircle(
+					(float) asteroids.getX(asteroid), (float) asteroids.getY(asteroid), asteroids.getRadius(asteroid),
+					points[i], points[i + 1]
+				)
+				: Collision.testLineAndCircle(
+					asteroids.getX(asteroid), asteroids.getY(asteroid), asteroids.getRadius(asteroid),
+					points[i], points[i + 1]
+				);
 
-			if (bullet.isDead()) {
-				it.remove();
-			} else {
-				bullet.update();
+			if (hit) {
+				return true;
 			}
 		}
+
+		return false;
+	}
+
+	private void updateEntities() {
+		ship.update();
+
+		asteroids.update(width, height);
+
+		bullets.update(state.getTicks(), width, height);
 	}
 
 	private void shipCollision() {
@@ -111,71 +227,158 @@ public class Game implements KeyListener {
 		state.removeLife();
 	}
 
+	/**
+	 * @return Whether the game is played with float rather than double precision entity state.
+	 */
+	public boolean isSinglePrecision() {
+		return singlePrecision;
+	}
+
 	public boolean isGameOver() {
 		return state.getLives() <= 0;
 	}
 
-	private Asteroid checkAsteroidCollision(Bullet bullet) {
-		final Iterator<Asteroid> it = asteroids.iterator();
+	/**
+	 * @return Whether the game is over or has run into one of the training limits.
+	 */
+	public boolean isFinished() {
+
+		if (isGameOver()) {
+			return true;
+		}
+
+		if (settings.getMaxTicks() > 0 && state.getTicks() >= settings.getMaxTicks()) {
+			return true;
+		}
+
+		return settings.getStagnationTicks() > 0 && state.getTicksSinceScore() >= settings.getStagnationTicks();
+	}
+
+	/**
+	 * Finalises the genome's fitness, whether the game ended naturally or was stopped early.
+	 */
+	public void finish() {
+		brain.finish();
+	}
+
+	public float getFitness() {
+		return brain.getFitness();
+	}
+
+	/**
+	 * Records every tick played from now on.
+	 */
+	public void setRecorder(ReplayRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+	/**
+	 * @return The number of bytes {@link #snapshot(ByteBuffer)} will write.
+	 */
+	public int getSnapshotSize() {
+		return Long.BYTES + GameState.SNAPSHOT_SIZE + Ship.SNAPSHOT_SIZE
+			+ asteroids.getSnapshotSize() + bullets.getSnapshotSize();
+	}
+
+	/**
+	 * Writes everything needed to carry on playing from the end of the current tick.
+	 */
+	public void snapshot(ByteBuffer buffer) {
+		buffer.putLong(random.getState());
+		state.snapshot(buffer);
+		ship.snapshot(buffer);
+		asteroids.snapshot(buffer);
+		bullets.snapshot(buffer);
+	}
+
+	public void restore(ByteBuffer buffer) {
+		random.setState(buffer.getLong());
+		state.restore(buffer);
+		ship.restore(buffer);
+		asteroids.restore(buffer);
+		bullets.restore(buffer);
+
+		indexAsteroids();
+
+		// Only so the sight lines are right when the restored game is drawn.
+		brain.sense(asteroids, grid);
+	}
+
+	private int checkAsteroidCollision(int bullet) {
+
+		final double x = bullets.getX(bullet);
+		final double y = bullets.getY(bullet);
+		final double radius = bullets.getRadius();
+
+		final int found = grid.query(x - radius, y - radius, x + radius, y + radius);
+
+		for (int i = 0; i < found; ++i) {
 
-		while (it.hasNext()) {
+			final int asteroid = grid.getResult(i);
 
-			final Asteroid asteroid = it.next();
+			if (destroyed[asteroid]) {
+				continue;
+			}
 
-			if (bullet.checkCollision(asteroid)) {
+			final boolean hit = singlePrecision
+				? Collision.testCircle(
+					(float) x, (float) y, (float) radius,
+					(float) asteroids.getX(asteroid), (float) asteroids.getY(asteroid), asteroids.getRadius(asteroid)
+				)
+				: Collision.testCircle(
+					x, y, radius,
+					asteroids.getX(asteroid), asteroids.getY(asteroid), asteroids.getRadius(asteroid)
+				);
+
+			if (hit) {
 				state.addShotHit();
-				// The bullet has hit an asteroid so remove it from the world.
-				it.remove();
+				// The bullet has hit an asteroid so mark it for removal from the world.
+				destroyed[asteroid] = true;
 				return asteroid;
 			}
 		}
 
-		return null;
+		return -1;
 	}
 
 	private void checkBulletCollision() {
 
-		final Iterator<Bullet> it = bullets.iterator();
-
-		final List<Asteroid> newAsteroids = new ArrayList<>();
+		if (destroyed.length < asteroids.getLimit()) {
+			destroyed = new boolean[Math.max(asteroids.getLimit(), destroyed.length * 2)];
+		}
 
-		while (it.hasNext()) {
-			final Bullet bullet = it.next();
+		if (hits.length < bullets.size()) {
+			hits = new int[Math.max(bullets.size(), hits.length * 2)];
+		}
 
-			final Asteroid asteroid = checkAsteroidCollision(bullet);
+		int numHits = 0;
 
-			if (asteroid != null) {
-				it.remove();
-				// Add any children to the pending list of asteroids
-				newAsteroids.addAll(asteroid.split());
+		for (int i = 0; i < bullets.getLimit(); ++i) {
 
-				state.addScore(asteroid.getWorth());
+			if (!bullets.isAlive(i)) {
+				continue;
 			}
-		}
-
-		// Now all the iterations are finished, we can safely add the new asteroids in.
-		asteroids.addAll(newAsteroids);
-	}
 
-	private void render(Graphics2D g, Entity entity) {
-		final Graphics2D instance = (Graphics2D) g.create();
-		entity.render(instance);
-		instance.dispose();
-	}
+			final int asteroid = checkAsteroidCollision(i);
 
-	public void render(Graphics2D graphics) {
+			if (asteroid >= 0) {
+				bullets.remove(i);
 
-		render(graphics, ship);
+				hits[numHits++] = asteroid;
 
-		for (final Entity entity : asteroids) {
-			render(graphics, entity);
+				state.addScore(asteroids.getWorth(asteroid));
+			}
 		}
 
-		for (final Entity entity : bullets) {
-			render(graphics, entity);
+		// Now all the iterations are finished, we can safely split the asteroids that were hit.
+		for (int i = 0; i < numHits; ++i) {
+			destroyed[hits[i]] = false;
+			asteroids.split(hits[i]);
 		}
 
-		brain.render(graphics);
+		if (numHits > 0) {
+			indexAsteroids();
+		}
 	}
 
 	public int getWidth() {
@@ -186,48 +389,28 @@ public class Game implements KeyListener {
 		return height;
 	}
 
-	@Override
-	public void keyTyped(KeyEvent e) {
-
+	public Ship getShip() {
+		return ship;
 	}
 
-	@Override
-	public void keyPressed(KeyEvent e) {
-		switch (e.getKeyCode()) {
-			case KeyEvent.VK_UP:
-				ship.boost();
-				break;
-
-			case KeyEvent.VK_LEFT:
-				ship.rotateLeft();
-				break;
-
-			case KeyEvent.VK_RIGHT:
-				ship.rotateRight();
-				break;
+	public AsteroidStore getAsteroids() {
+		return asteroids;
+	}
 
-			case KeyEvent.VK_SPACE:
-				ship.startShooting();
-				break;
-		}
+	public BulletStore getBullets() {
+		return bullets;
 	}
 
-	@Override
-	public void keyReleased(KeyEvent e) {
-		switch (e.getKeyCode()) {
-			case KeyEvent.VK_UP:
-				ship.boostOff();
-				break;
+	SpatialGrid getGrid() {
+		return grid;
+	}
 
-			case KeyEvent.VK_LEFT:
-			case KeyEvent.VK_RIGHT:
-				ship.stopRotation();
-				break;
+	public Brain getBrain() {
+		return brain;
+	}
 
-			case KeyEvent.VK_SPACE:
-				ship.stopShooting();
-				break;
-		}
+	public GameState getState() {
+		return state;
 	}
 
 	public int getCurrentTick() {
@@ -1,7 +1,14 @@
 package com.danielbulger.asteroids;
 
+import java.nio.ByteBuffer;
+
 public class GameState {
 
+	/**
+	 * The number of bytes {@link #snapshot(ByteBuffer)} writes.
+	 */
+	public static final int SNAPSHOT_SIZE = 6 * Integer.BYTES;
+
 	private static final int START_NUM_LIVES = 3;
 	private final int width, height;
 
@@ -10,6 +17,7 @@ public class GameState {
 	private int shotsFired = 0;
 	private int shotsHit = 0;
 	private int score = 0;
+	private int lastScoreTick = 0;
 
 	public GameState(int width, int height) {
 		this.width = width;
@@ -26,6 +34,7 @@ public class GameState {
 
 	public void addScore(int score) {
 		this.score += score;
+		this.lastScoreTick = ticks;
 	}
 
 	public void addShotFired() {
@@ -56,6 +65,10 @@ public class GameState {
 		return ticks;
 	}
 
+	public int getTicksSinceScore() {
+		return ticks - lastScoreTick;
+	}
+
 	public int getWidth() {
 		return width;
 	}
@@ -64,6 +77,24 @@ public class GameState {
 		return height;
 	}
 
+	public void snapshot(ByteBuffer buffer) {
+		buffer.putInt(ticks);
+		buffer.putInt(lives);
+		buffer.putInt(shotsFired);
+		buffer.putInt(shotsHit);
+		buffer.putInt(score);
+		buffer.putInt(lastScoreTick);
+	}
+
+	public void restore(ByteBuffer buffer) {
+		ticks = buffer.getInt();
+		lives = buffer.getInt();
+		shotsFired = buffer.getInt();
+		shotsHit = buffer.getInt();
+		score = buffer.getInt();
+		lastScoreTick = buffer.getInt();
+	}
+
 	@Override
 	public String toString() {
 		return "GameState{" +
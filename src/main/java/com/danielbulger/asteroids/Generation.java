@@ -0,0 +1,353 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Every episode that has to be played to score one generation of genomes, and the results of
+ * playing them.
+ * <p>
+ * Episodes are indexed genome by genome, so the episodes of genome {@code g} are
+ * {@code g * episodes} up to {@code (g + 1) * episodes}. Episodes whose result is already in the
+ * {@link FitnessCache} are filled in straight away, and genomes identical to one earlier in the
+ * generation share its episodes, so evaluators only play the pending ones.
+ */
+public class Generation {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Generation.class.getName());
+
+	private final List<Genome> genomes;
+
+	// The genome that plays each episode.
+	private final List<Genome> players;
+
+	private final Settings settings;
+
+	private final int episodes;
+
+	private final long[] seeds;
+
+	private final float[] fitness;
+
+	// The number of ticks each episode lasted.
+	private final int[] lengths;
+
+	// The combined fitness of each genome, once assigned.
+	private final float[] genomeFitness;
+
+	private final long deadline;
+
+	private final AtomicInteger timedOut = new AtomicInteger();
+
+	private final LongAdder busyTime = new LongAdder();
+
+	// The first episode to fail, rethrown once the evaluator has finished.
+	private final AtomicReference<IllegalStateException> failure = new AtomicReference<>();
+
+	private final Path replayDirectory;
+
+	private final FitnessCache cache;
+
+	// The fingerprint of each genome, only taken when there is a cache.
+	private final byte[][] fingerprints;
+
+	// Whether each episode was stopped by the deadline, which makes its result unrepeatable.
+	private final boolean[] stopped;
+
+	// The episode whose result each episode shares, or -1 if it has its own.
+	private final int[] sources;
+
+	// The indices of the episodes that still have to be played.
+	private final int[] pending;
+
+	public Generation(List<Genome> genomes, long[] seeds, Settings settings) {
+		this(genomes, seeds, settings, null, null);
+	}
+
+	/**
+	 * @param replayDirectory Where every episode is recorded, or null to not record them.
+	 * @param cache           Where to look up and store episode results, or null to play every
+	 *                        episode.
+	 */
+	public Generation(List<Genome> genomes, long[] seeds, Settings settings, Path replayDirectory, FitnessCache cache) {
+		this(genomes, seeds, settings, replayDirectory, cache, newDeadline(settings));
+	}
+
+	/**
+	 * Plays the episodes against a deadline set elsewhere, such as by the coordinator an
+	 * {@link EvaluationWorker} is playing for.
+	 *
+	 * @param deadline The {@link System#nanoTime()} at which every game still running is stopped.
+	 */
+	Generation(List<Genome> genomes, long[] seeds, Settings settings, long deadline) {
+		this(genomes, seeds, settings, null, null, deadline);
+	}
+
+	private Generation(
+		List<Genome> genomes, long[] seeds, Settings settings, Path replayDirectory, FitnessCache cache, long deadline
+	) {
+		this.genomes = genomes;
+		this.replayDirectory = replayDirectory;
+		this.cache = cache;
+		this.settings = settings;
+		this.episodes = seeds.length;
+		this.seeds = seeds;
+		this.fitness = new float[genomes.size() * episodes];
+		this.lengths = new int[fitness.length];
+		this.genomeFitness = new float[genomes.size()];
+		this.stopped = new boolean[fitness.length];
+		this.sources = new int[fitness.length];
+		this.fingerprints = new byte[cache == null ? 0 : genomes.size()][];
+		this.players = new ArrayList<>(fitness.length);
+		this.deadline = deadline;
+
+		for (final Genome genome : genomes) {
+			for (int episode = 0; episode < episodes; ++episode) {
+				// Episodes of the same genome can run at the same time, so each gets its own copy.
+				players.add(episodes == 1 ? genome : new Genome(genome));
+			}
+		}
+
+		Arrays.fill(sources, -1);
+
+		final int[] firstCopies = findFirstCopies();
+
+		int count = 0;
+		final int[] pending = new int[fitness.length];
+
+		for (int i = 0; i < fitness.length; ++i) {
+
+			final int firstCopy = firstCopies[i / episodes];
+
+			if (firstCopy != i / episodes) {
+				sources[i] = firstCopy * episodes + i % episodes;
+				continue;
+			}
+
+			final FitnessCache.Result result = lookup(i);
+
+			if (result == null) {
+				pending[count++] = i;
+			} else {
+				setResult(i, result.getFitness(), result.getTicks());
+			}
+		}
+
+		this.pending = Arrays.copyOf(pending, count);
+	}
+
+	private static long newDeadline(Settings settings) {
+		return settings.getGenerationTimeBudget() > 0
+			? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getGenerationTimeBudget())
+			: Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return The index of the first genome identical to each genome, which is itself unless
+	 * there is no cache to fingerprint them for.
+	 */
+	private int[] findFirstCopies() {
+
+		final int[] firstCopies = new int[genomes.size()];
+		final Map<ByteBuffer, Integer> seen = new HashMap<>();
+
+		for (int genome = 0; genome < firstCopies.length; ++genome) {
+
+			if (cache == null) {
+				firstCopies[genome] = genome;
+				continue;
+			}
+
+			final int first = genome;
+
+			fingerprints[genome] = FitnessCache.fingerprint(genomes.get(genome));
+			firstCopies[genome] = seen.computeIfAbsent(ByteBuffer.wrap(fingerprints[genome]), key -> first);
+		}
+
+		return firstCopies;
+	}
+
+	private FitnessCache.Result lookup(int index) {
+
+		if (cache == null) {
+			return null;
+		}
+
+		return cache.get(fingerprints[index / episodes], seeds[index % episodes]);
+	}
+
+	/**
+	 * @return The number of episodes that have to be played, the rest came from the cache or are
+	 * shared with an identical genome.
+	 */
+	public int getPendingCount() {
+		return pending.length;
+	}
+
+	/**
+	 * @return The index of the given pending episode, to pass to {@link #newEpisode(int)}.
+	 */
+	public int getPending(int pendingIndex) {
+		return pending[pendingIndex];
+	}
+
+	/**
+	 * @return The total number of episodes across every genome.
+	 */
+	public int size() {
+		return fitness.length;
+	}
+
+	public Episode newEpisode(int index) {
+		return new Episode(this, index, players.get(index), seeds[index % episodes]);
+	}
+
+	/**
+	 * @return The genome that plays the episode.
+	 */
+	Genome getGenome(int index) {
+		return genomes.get(index / episodes);
+	}
+
+	/**
+	 * @return The seed the episode is played with.
+	 */
+	long getSeed(int index) {
+		return seeds[index % episodes];
+	}
+
+	/**
+	 * Sets the fitness of every genome from the episodes it played.
+	 */
+	public void assignFitness() {
+
+		if (cache != null) {
+			for (final int index : pending) {
+				if (!stopped[index]) {
+					cache.put(fingerprints[index / episodes], seeds[index % episodes], fitness[index], lengths[index]);
+				}
+			}
+		}
+
+		for (int i = 0; i < sources.length; ++i) {
+			if (sources[i] >= 0) {
+				setResult(i, fitness[sources[i]], lengths[sources[i]]);
+			}
+		}
+
+		for (int i = 0; i < genomes.size(); ++i) {
+			genomeFitness[i] = settings.getAggregator().aggregate(fitness, i * episodes, episodes);
+			genomes.get(i).setFitness(genomeFitness[i]);
+		}
+	}
+
+	void setResult(int index, float value, int ticks) {
+		fitness[index] = value;
+		lengths[index] = ticks;
+	}
+
+	/**
+	 * @return The fitness the episode scored.
+	 */
+	public float getFitness(int index) {
+		return fitness[index];
+	}
+
+	/**
+	 * @return The number of ticks the episode lasted.
+	 */
+	public int getLength(int index) {
+		return lengths[index];
+	}
+
+	/**
+	 * @return Whether the episode was stopped by the deadline rather than finishing.
+	 */
+	public boolean isStopped(int index) {
+		return stopped[index];
+	}
+
+	public int getGenomeCount() {
+		return genomeFitness.length;
+	}
+
+	/**
+	 * @return The fitness the genome was given by {@link #assignFitness()}.
+	 */
+	public float getGenomeFitness(int genome) {
+		return genomeFitness[genome];
+	}
+
+	void addBusyTime(long nanos) {
+		busyTime.add(nanos);
+	}
+
+	void addTimedOut(int index) {
+		stopped[index] = true;
+		timedOut.incrementAndGet();
+	}
+
+	/**
+	 * Records that an episode couldn't be played. Only the first failure is kept, to be thrown by
+	 * {@link #checkFailure()}, but every one is logged.
+	 */
+	void fail(int index, Throwable cause) {
+
+		LOG.error("Episode {} of genome {} failed with seed {}", index, index / episodes, getSeed(index), cause);
+
+		failure.compareAndSet(null, new IllegalStateException(
+			"Episode " + index + " failed with seed " + getSeed(index), cause
+		));
+	}
+
+	/**
+	 * Called by evaluators once every episode has been played, so a failure that happened on one
+	 * of their threads stops training rather than leaving the episode with no fitness.
+	 *
+	 * @throws IllegalStateException If any episode failed, caused by the first failure.
+	 */
+	public void checkFailure() {
+
+		final IllegalStateException exception = failure.get();
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * @return The nanoseconds that workers spent actually playing, summed over every worker.
+	 */
+	public long getBusyTime() {
+		return busyTime.sum();
+	}
+
+	public int getTimedOut() {
+		return timedOut.get();
+	}
+
+	public long getDeadline() {
+		return deadline;
+	}
+
+	public Settings getSettings() {
+		return settings;
+	}
+
+	public Path getReplayDirectory() {
+		return replayDirectory;
+	}
+}
@@ -0,0 +1,20 @@
+package com.danielbulger.asteroids;
+
+/**
+ * Plays every episode of a generation, however it sees fit to spread them over the machine.
+ */
+public interface GenerationEvaluator extends AutoCloseable {
+
+	/**
+	 * Blocks until every episode in the generation has finished and recorded its fitness.
+	 */
+	void evaluate(Generation generation) throws InterruptedException;
+
+	/**
+	 * @return The number of threads episodes are played on.
+	 */
+	int getParallelism();
+
+	@Override
+	void close();
+}
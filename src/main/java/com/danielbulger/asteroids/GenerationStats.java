@@ -0,0 +1,202 @@
+package com.danielbulger.asteroids;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a single generation played out: how long it took, how fast the games ran, how long they
+ * lasted and how fit the genomes ended up.
+ * <p>
+ * The fitness is over the whole population. Evolution doesn't expose which species each genome
+ * belongs to, so there is no per-species breakdown.
+ */
+public class GenerationStats {
+
+	public static final String CSV_HEADER = "generation,wallMillis,episodes,cached,ticks,ticksPerSecond,gamesPerSecond,"
+		+ "tickNanos,utilisation,timedOut,lengthMin,lengthP50,lengthP90,lengthP99,lengthMax,"
+		+ "fitnessMin,fitnessMean,fitnessMax";
+
+	/**
+	 * @param wallNanos   How long the generation took to play.
+	 * @param parallelism The number of workers the generation was played on.
+	 */
+	public static GenerationStats of(int number, Generation generation, long wallNanos, int parallelism) {
+
+		final LengthHistogram lengths = new LengthHistogram();
+
+		for (int i = 0; i < generation.size(); ++i) {
+			lengths.record(generation.getLength(i));
+		}
+
+		// Only the episodes actually played count towards the throughput.
+		long ticks = 0;
+
+		for (int i = 0; i < generation.getPendingCount(); ++i) {
+			ticks += generation.getLength(generation.getPending(i));
+		}
+
+		float min = Float.POSITIVE_INFINITY;
+		float max = Float.NEGATIVE_INFINITY;
+		double sum = 0;
+
+		for (int i = 0; i < generation.getGenomeCount(); ++i) {
+			final float fitness = generation.getGenomeFitness(i);
+			min = Math.min(min, fitness);
+			max = Math.max(max, fitness);
+			sum += fitness;
+		}
+
+		return new GenerationStats(
+			number,
+			wallNanos,
+			generation.getBusyTime(),
+			parallelism,
+			generation.getPendingCount(),
+			generation.size() - generation.getPendingCount(),
+			ticks,
+			generation.getTimedOut(),
+			lengths,
+			min,
+			(float) (sum / generation.getGenomeCount()),
+			max
+		);
+	}
+
+	private final int generation;
+
+	private final long wallNanos;
+
+	private final long busyNanos;
+
+	private final int parallelism;
+
+	private final int episodes;
+
+	private final int cached;
+
+	private final long ticks;
+
+	private final int timedOut;
+
+	private final LengthHistogram lengths;
+
+	private final float fitnessMin;
+
+	private final float fitnessMean;
+
+	private final float fitnessMax;
+
+	private GenerationStats(
+		int generation, long wallNanos, long busyNanos, int parallelism, int episodes, int cached, long ticks, int timedOut,
+		LengthHistogram lengths, float fitnessMin, float fitnessMean, float fitnessMax
+	) {
+		this.generation = generation;
+		this.wallNanos = wallNanos;
+		this.busyNanos = busyNanos;
+		this.parallelism = parallelism;
+		this.episodes = episodes;
+		this.cached = cached;
+		this.ticks = ticks;
+		this.timedOut = timedOut;
+		this.lengths = lengths;
+		this.fitnessMin = fitnessMin;
+		this.fitnessMean = fitnessMean;
+		this.fitnessMax = fitnessMax;
+	}
+
+	public int getGeneration() {
+		return generation;
+	}
+
+	public long getWallMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(wallNanos);
+	}
+
+	public int getEpisodes() {
+		return episodes;
+	}
+
+	/**
+	 * @return The number of episodes whose result came from the fitness cache, or from an
+	 * identical genome, instead of being played.
+	 */
+	public int getCached() {
+		return cached;
+	}
+
+	public long getTicks() {
+		return ticks;
+	}
+
+	public double getTicksPerSecond() {
+		return wallNanos == 0 ? 0 : ticks / (wallNanos / 1e9);
+	}
+
+	public double getGamesPerSecond() {
+		return wallNanos == 0 ? 0 : episodes / (wallNanos / 1e9);
+	}
+
+	/**
+	 * @return The average time a worker spent on a single tick.
+	 */
+	public double getTickNanos() {
+		return ticks == 0 ? 0 : (double) busyNanos / ticks;
+	}
+
+	/**
+	 * @return The fraction of the available worker time actually spent playing.
+	 */
+	public double getUtilisation() {
+		return wallNanos == 0 ? 0 : busyNanos / ((double) wallNanos * parallelism);
+	}
+
+	public int getTimedOut() {
+		return timedOut;
+	}
+
+	/**
+	 * @return How many ticks the episodes lasted.
+	 */
+	public LengthHistogram getLengths() {
+		return lengths;
+	}
+
+	public float getFitnessMin() {
+		return fitnessMin;
+	}
+
+	public float getFitnessMean() {
+		return fitnessMean;
+	}
+
+	public float getFitnessMax() {
+		return fitnessMax;
+	}
+
+	public String toCsv() {
+		return String.format(
+			Locale.ROOT,
+			"%d,%d,%d,%d,%d,%.1f,%.2f,%.1f,%.3f,%d,%d,%d,%d,%d,%d,%s,%s,%s",
+			generation, getWallMillis(), episodes, cached, ticks, getTicksPerSecond(), getGamesPerSecond(),
+			getTickNanos(), getUtilisation(), timedOut,
+			lengths.getMin(), lengths.getValueAtPercentile(50), lengths.getValueAtPercentile(90),
+			lengths.getValueAtPercentile(99), lengths.getMax(),
+			fitnessMin, fitnessMean, fitnessMax
+		);
+	}
+
+	public String toJson() {
+		return String.format(
+			Locale.ROOT,
+			"{\"generation\":%d,\"wallMillis\":%d,\"episodes\":%d,\"cached\":%d,\"ticks\":%d,\"ticksPerSecond\":%.1f,"
+				+ "\"gamesPerSecond\":%.2f,\"tickNanos\":%.1f,\"utilisation\":%.3f,\"timedOut\":%d,"
+				+ "\"length\":{\"min\":%d,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"max\":%d},"
+				+ "\"fitness\":{\"min\":%s,\"mean\":%s,\"max\":%s}}",
+			generation, getWallMillis(), episodes, cached, ticks, getTicksPerSecond(), getGamesPerSecond(),
+			getTickNanos(), getUtilisation(), timedOut,
+			lengths.getMin(), lengths.getValueAtPercentile(50), lengths.getValueAtPercentile(90),
+			lengths.getValueAtPercentile(99), lengths.getMax(),
+			fitnessMin, fitnessMean, fitnessMax
+		);
+	}
+}
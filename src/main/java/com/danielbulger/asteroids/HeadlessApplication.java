@@ -0,0 +1,22 @@
+package com.danielbulger.asteroids;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the training games without the demo window, so nothing from java.awt is ever loaded.
+ */
+public class HeadlessApplication {
+
+	public static void main(final String[] args) throws Exception {
+
+		final Training trainer = Trainer.create(Trainer.getProperties());
+
+		final Path resume = Checkpoint.getResumePath(args);
+
+		if (resume != null) {
+			trainer.resume(resume);
+		}
+
+		trainer.run();
+	}
+}
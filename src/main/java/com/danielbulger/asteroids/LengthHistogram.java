@@ -0,0 +1,103 @@
+package com.danielbulger.asteroids;
+
+/**
+ * Counts episode lengths in logarithmic buckets, in the style of HdrHistogram.
+ * <p>
+ * Each power of two range is split into {@link #SUB_BUCKETS} equal buckets, so any recorded value
+ * is reported to within one part in {@value #SUB_BUCKETS} whether the game lasted ten ticks or a
+ * million, in a fixed amount of memory.
+ */
+public class LengthHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	// Enough to cover every non-negative int.
+	private static final int BUCKETS = (Integer.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+
+	private long total = 0;
+
+	private int min = Integer.MAX_VALUE;
+
+	private int max = 0;
+
+	private static int indexOf(int value) {
+
+		if (value < SUB_BUCKETS) {
+			return value;
+		}
+
+		// The range is picked by the highest bit, and the sub-bucket by the bits just below it.
+		final int shift = (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+
+		return ((shift + 1) * SUB_BUCKETS) + ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * @return The highest value that falls in the bucket.
+	 */
+	private static int highestValueOf(int index) {
+
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+
+		final int shift = (index / SUB_BUCKETS) - 1;
+		final long lowest = (long) ((index % SUB_BUCKETS) + SUB_BUCKETS) << shift;
+
+		return (int) Math.min(Integer.MAX_VALUE, lowest + (1L << shift) - 1);
+	}
+
+	public void record(int value) {
+
+		if (value < 0) {
+			throw new IllegalArgumentException("Lengths can't be negative: " + value);
+		}
+
+		++counts[indexOf(value)];
+		++total;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public int getMin() {
+		return total == 0 ? 0 : min;
+	}
+
+	public int getMax() {
+		return max;
+	}
+
+	/**
+	 * @return The value at or below which the given percentage of the recorded values fall, to
+	 * within the resolution of the buckets.
+	 */
+	public int getValueAtPercentile(double percentile) {
+
+		if (total == 0) {
+			return 0;
+		}
+
+		final long target = Math.max(1, (long) Math.ceil((percentile / 100.0) * total));
+
+		long seen = 0;
+
+		for (int i = 0; i < counts.length; ++i) {
+
+			seen += counts[i];
+
+			if (seen >= target) {
+				return Math.min(highestValueOf(i), max);
+			}
+		}
+
+		return max;
+	}
+}
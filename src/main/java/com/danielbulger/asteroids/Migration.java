@@ -0,0 +1,118 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Moves the fittest genomes of one lane to the next, so lanes evolve as islands that share their
+ * best ideas every so often instead of in complete isolation.
+ * <p>
+ * Lanes are joined in a ring, each sending to the next through a lock-free queue, so a lane never
+ * waits for its neighbour to reach the same generation. A migrant's fitness was scored on another
+ * island's seeds and can't be compared with the fitness of the genomes it would replace, so the
+ * island it arrives at plays it on its own seeds first. Migrants that turn out fitter than the
+ * weakest genomes replace them, just before the island evolves, so they take part in breeding
+ * straight away.
+ * <p>
+ * Every island builds its own {@link com.danielbulger.neat.Evolution}, so whether a migrant's
+ * innovation numbers mean the same thing on its new island depends on NEAT numbering innovations
+ * globally rather than per evolution, which its API doesn't say. Crossover aligns genes by those
+ * numbers, so where they differ a migrant's genes are treated as disjoint or excess and it breeds
+ * more like a clone, but the children are still whole, valid genomes.
+ */
+public class Migration {
+
+	private static final Comparator<Genome> BY_FITNESS = Comparator.comparingDouble(Genome::getFitness);
+
+	private final Queue<Genome> inbound;
+
+	private final Queue<Genome> outbound;
+
+	private final int interval;
+
+	private final int migrants;
+
+	/**
+	 * @param inbound  Where other islands leave their migrants for this one.
+	 * @param outbound Where this island leaves its migrants for the next.
+	 * @param interval The number of generations between migrations.
+	 * @param migrants The number of genomes sent each migration.
+	 */
+	public Migration(Queue<Genome> inbound, Queue<Genome> outbound, int interval, int migrants) {
+		this.inbound = inbound;
+		this.outbound = outbound;
+		this.interval = interval;
+		this.migrants = migrants;
+	}
+
+	public boolean isDue(int generation) {
+		return (generation + 1) % interval == 0;
+	}
+
+	/**
+	 * Sends copies of the fittest genomes on to the next island.
+	 *
+	 * @param genomes The population, with the fitness of the generation just played.
+	 */
+	public void send(List<Genome> genomes) {
+
+		final List<Genome> ranked = new ArrayList<>(genomes);
+		ranked.sort(BY_FITNESS.reversed());
+
+		for (int i = 0; i < Math.min(migrants, ranked.size()); ++i) {
+			outbound.offer(new Genome(ranked.get(i)));
+		}
+	}
+
+	/**
+	 * @return Every migrant that has arrived since the last migration, which may be several
+	 * migrations' worth from a faster neighbour.
+	 */
+	public List<Genome> receive() {
+
+		final List<Genome> arrived = new ArrayList<>();
+
+		for (Genome migrant = inbound.poll(); migrant != null; migrant = inbound.poll()) {
+			arrived.add(migrant);
+		}
+
+		return arrived;
+	}
+
+	/**
+	 * Swaps the weakest genomes for the fittest migrants, as long as the migrant is the fitter of
+	 * the two, taking in at most one migration's worth.
+	 *
+	 * @param genomes  The population, with the fitness of the generation just played.
+	 * @param arrived  The migrants, scored on the same seeds as the population.
+	 * @return The number of migrants taken in.
+	 */
+	public int admit(List<Genome> genomes, List<Genome> arrived) {
+
+		final List<Genome> ranked = new ArrayList<>(genomes);
+		ranked.sort(BY_FITNESS);
+
+		final List<Genome> candidates = new ArrayList<>(arrived);
+		candidates.sort(BY_FITNESS.reversed());
+
+		int taken = 0;
+
+		for (int i = 0; i < Math.min(migrants, candidates.size()) && i < ranked.size(); ++i) {
+
+			final Genome weakest = ranked.get(i);
+
+			if (candidates.get(i).getFitness() <= weakest.getFitness()) {
+				break;
+			}
+
+			genomes.set(genomes.indexOf(weakest), candidates.get(i));
+			++taken;
+		}
+
+		return taken;
+	}
+}
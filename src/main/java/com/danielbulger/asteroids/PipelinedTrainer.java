@@ -0,0 +1,206 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Evolution;
+import com.danielbulger.neat.Genome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Evolves {@code evolution.lanes} populations side by side, each on its own thread and all sharing
+ * one evaluator. Each lane loads a whole population from the NEAT properties, or
+ * {@code evolution.island-population} genomes if that is set.
+ * <p>
+ * A single population has to wait for its slowest episode before it can evolve, and the cores sit
+ * idle while it does. Lanes still wait on their own slowest episode, but never on each other, so
+ * while one lane finishes its last few games or evolves its next generation the episodes of the
+ * other lanes keep the cores busy.
+ * <p>
+ * This only pipelines generational evolution, it is not steady-state evolution. Every lane still
+ * breeds whole generations with {@link com.danielbulger.neat.Evolution#evolve()}, once all of its
+ * episodes are in, so the barrier before breeding is still there within a lane, only the one
+ * between lanes is gone. With one lane, the default, training is exactly the generational loop it
+ * always was.
+ * <p>
+ * Every {@code evolution.migration-interval} generations each lane sends its fittest genomes on to
+ * the next through a {@link Migration}, so the lanes evolve as an island model rather than as
+ * entirely separate runs.
+ * <p>
+ * Each lane is an ordinary {@link Trainer} with its own seed, and its own checkpoint, metrics and
+ * replays, named after the lane. The evaluator has to cope with generations from every lane at
+ * once, which the thread pool evaluators do but the distributed one doesn't.
+ */
+public class PipelinedTrainer implements Training {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PipelinedTrainer.class.getName());
+
+	/**
+	 * @return The file name with the lane inserted before the extension, e.g. checkpoint-lane-1.bin.
+	 */
+	static Path getLaneFile(Path file, int lane) {
+
+		final String name = file.getFileName().toString();
+		final int extension = name.lastIndexOf('.');
+
+		return file.resolveSibling(extension < 0
+			? name + "-lane-" + lane
+			: name.substring(0, extension) + "-lane-" + lane + name.substring(extension)
+		);
+	}
+
+	private final Settings settings;
+
+	private final GenerationEvaluator evaluator;
+
+	private final List<Trainer> lanes = new ArrayList<>();
+
+	public PipelinedTrainer(Properties properties, Settings settings) {
+
+		if ("distributed".equals(settings.getEvaluator())) {
+			throw new IllegalArgumentException("evolution.lanes needs an evaluator that plays generations side by side");
+		}
+
+		this.settings = settings;
+		this.evaluator = Trainer.createEvaluator(settings);
+
+		final SplittableRandom seeds = new SplittableRandom(settings.getSeed());
+
+		for (int lane = 0; lane < settings.getLanes(); ++lane) {
+
+			final Properties laneProperties = getLaneProperties(settings, lane, seeds.nextLong());
+
+			final Properties evolutionProperties = new Properties();
+			evolutionProperties.putAll(properties);
+
+			if (settings.getIslandPopulation() > 0) {
+				evolutionProperties.setProperty(
+					"population.initial-size", Integer.toString(settings.getIslandPopulation())
+				);
+			}
+
+			final Evolution evolution = Trainer.getEvolution(evolutionProperties);
+
+			LOG.info("Lane {} evolves a population of {}", lane, evolution.getGenomes().size());
+
+			lanes.add(new Trainer(evolution, Settings.fromProperties(laneProperties), evaluator));
+		}
+
+		if (settings.getMigrationInterval() > 0 && settings.getMigrants() > 0) {
+			connect();
+		}
+	}
+
+	/**
+	 * Joins the lanes in a ring, each sending its migrants to the next.
+	 */
+	private void connect() {
+
+		final List<ConcurrentLinkedQueue<Genome>> arrivals = new ArrayList<>();
+
+		for (int lane = 0; lane < lanes.size(); ++lane) {
+			arrivals.add(new ConcurrentLinkedQueue<>());
+		}
+
+		for (int lane = 0; lane < lanes.size(); ++lane) {
+			lanes.get(lane).setMigration(new Migration(
+				arrivals.get(lane),
+				arrivals.get((lane + 1) % lanes.size()),
+				settings.getMigrationInterval(),
+				settings.getMigrants()
+			));
+		}
+	}
+
+	private static Properties getLaneProperties(Settings settings, int lane, long seed) {
+
+		final Properties properties = settings.getProperties();
+		properties.setProperty("simulation.seed", Long.toString(seed));
+
+		if (settings.getCheckpointFile() != null) {
+			properties.setProperty("checkpoint.file", getLaneFile(settings.getCheckpointFile(), lane).toString());
+		}
+
+		if (settings.getMetricsFile() != null) {
+			properties.setProperty("metrics.file", getLaneFile(settings.getMetricsFile(), lane).toString());
+		}
+
+		if (settings.getReplayDirectory() != null) {
+			properties.setProperty("replay.directory", settings.getReplayDirectory().resolve("lane-" + lane).toString());
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Resumes every lane from its own checkpoint, named after the given file.
+	 */
+	@Override
+	public void resume(Path checkpoint) throws IOException {
+		for (int lane = 0; lane < lanes.size(); ++lane) {
+			lanes.get(lane).resume(getLaneFile(checkpoint, lane));
+		}
+	}
+
+	@Override
+	public void run() {
+
+		LOG.info("Training {} lanes side by side", lanes.size());
+
+		final List<Thread> threads = new ArrayList<>();
+
+		for (int lane = 0; lane < lanes.size(); ++lane) {
+			final Thread thread = new Thread(lanes.get(lane), "lane-" + lane);
+			thread.start();
+			threads.add(thread);
+		}
+
+		try {
+			for (final Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException exception) {
+			stop();
+			Thread.currentThread().interrupt();
+		} finally {
+			evaluator.close();
+		}
+	}
+
+	@Override
+	public void stop() {
+		for (final Trainer lane : lanes) {
+			lane.stop();
+		}
+	}
+
+	/**
+	 * @return The best genome of whichever lane has found the fittest one.
+	 */
+	@Override
+	public Genome getBest() {
+
+		Genome best = null;
+
+		for (final Trainer lane : lanes) {
+			final Genome candidate = lane.getBest();
+
+			if (best == null || candidate.getFitness() > best.getFitness()) {
+				best = candidate;
+			}
+		}
+
+		return best;
+	}
+
+	@Override
+	public Settings getSettings() {
+		return settings;
+	}
+}
@@ -0,0 +1,289 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays the same genomes and seeds with double and float precision entity state side by side and
+ * reports how far apart they end up, to judge whether {@code simulation.precision = float} changes
+ * training for the worse.
+ * <p>
+ * Each pair of games is stepped together so the report can say when they first differ in score,
+ * lives, or the number of asteroids or bullets, as well as how different the final fitness is and
+ * whether the genomes still rank in the same order, which is all selection cares about.
+ * <p>
+ * Usage: {@code PrecisionReport [--seeds N] [--seed S] [checkpoint]...}. The genomes are the
+ * populations of the checkpoints, or a fresh initial population if none are given.
+ */
+public class PrecisionReport {
+
+	private static final int DEFAULT_SEEDS = 20;
+
+	private static final int[] PERCENTILES = {10, 50, 90};
+
+	public static void main(final String[] args) throws Exception {
+
+		int seedCount = DEFAULT_SEEDS;
+		long seed = 0;
+		final List<Path> checkpoints = new ArrayList<>();
+
+		for (int i = 0; i < args.length; ++i) {
+			if ("--seeds".equals(args[i]) && i + 1 < args.length) {
+				seedCount = Integer.parseInt(args[++i]);
+			} else if ("--seed".equals(args[i]) && i + 1 < args.length) {
+				seed = Long.parseLong(args[++i]);
+			} else {
+				checkpoints.add(Path.of(args[i]));
+			}
+		}
+
+		final Properties properties = Trainer.getProperties();
+
+		final List<Genome> genomes = new ArrayList<>();
+
+		if (checkpoints.isEmpty()) {
+			genomes.addAll(Trainer.getEvolution(properties).getGenomes());
+		} else {
+			for (final Path checkpoint : checkpoints) {
+				genomes.addAll(Checkpoint.read(checkpoint).getGenomes());
+			}
+		}
+
+		properties.setProperty("simulation.precision", "double");
+		final Settings doubles = Settings.fromProperties(properties);
+
+		properties.setProperty("simulation.precision", "float");
+		final Settings floats = Settings.fromProperties(properties);
+
+		final long[] seeds = new long[seedCount];
+		final SplittableRandom random = new SplittableRandom(seed);
+
+		for (int i = 0; i < seeds.length; ++i) {
+			seeds[i] = random.nextLong();
+		}
+
+		final int episodes = genomes.size() * seeds.length;
+
+		final double[] doubleFitness = new double[episodes];
+		final double[] floatFitness = new double[episodes];
+		final int[] divergedAt = new int[episodes];
+
+		final AtomicInteger next = new AtomicInteger();
+		final ExecutorService workers = Executors.newFixedThreadPool(doubles.getThreads());
+		final List<Future<?>> futures = new ArrayList<>();
+
+		for (int thread = 0; thread < doubles.getThreads(); ++thread) {
+			futures.add(workers.submit(() -> {
+				for (int i = next.getAndIncrement(); i < episodes; i = next.getAndIncrement()) {
+
+					final Genome genome = genomes.get(i / seeds.length);
+					final long episodeSeed = seeds[i % seeds.length];
+
+					final Game doubleGame = new Game(Trainer.WIDTH, Trainer.HEIGHT, new Genome(genome), doubles, episodeSeed);
+					final Game floatGame = new Game(Trainer.WIDTH, Trainer.HEIGHT, new Genome(genome), floats, episodeSeed);
+
+					divergedAt[i] = play(doubleGame, floatGame);
+					doubleFitness[i] = doubleGame.getFitness();
+					floatFitness[i] = floatGame.getFitness();
+				}
+			}));
+		}
+
+		try {
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+
+		report(genomes.size(), seeds.length, doubleFitness, floatFitness, divergedAt);
+	}
+
+	/**
+	 * Plays both games to the end, a tick at a time.
+	 *
+	 * @return The first tick the games visibly differ on, or -1 if they never did.
+	 */
+	private static int play(Game doubleGame, Game floatGame) {
+
+		int divergedAt = -1;
+
+		while (!doubleGame.isFinished() || !floatGame.isFinished()) {
+
+			if (!doubleGame.isFinished()) {
+				doubleGame.update();
+			}
+
+			if (!floatGame.isFinished()) {
+				floatGame.update();
+			}
+
+			if (divergedAt < 0 && !isSame(doubleGame, floatGame)) {
+				divergedAt = doubleGame.getCurrentTick();
+			}
+		}
+
+		doubleGame.finish();
+		floatGame.finish();
+
+		return divergedAt;
+	}
+
+	private static boolean isSame(Game a, Game b) {
+		return a.getCurrentTick() == b.getCurrentTick()
+			&& a.getState().getScore() == b.getState().getScore()
+			&& a.getState().getLives() == b.getState().getLives()
+			&& a.getAsteroids().size() == b.getAsteroids().size()
+			&& a.getBullets().size() == b.getBullets().size();
+	}
+
+	private static void report(int genomes, int seeds, double[] doubleFitness, double[] floatFitness, int[] divergedAt) {
+
+		final int episodes = doubleFitness.length;
+
+		int identical = 0;
+		double relative = 0;
+		final double[] difference = new double[episodes];
+		final List<Double> divergence = new ArrayList<>();
+
+		for (int i = 0; i < episodes; ++i) {
+
+			difference[i] = Math.abs(doubleFitness[i] - floatFitness[i]);
+
+			if (difference[i] == 0) {
+				++identical;
+			}
+
+			if (doubleFitness[i] != 0) {
+				relative += difference[i] / Math.abs(doubleFitness[i]);
+			}
+
+			if (divergedAt[i] >= 0) {
+				divergence.add((double) divergedAt[i]);
+			}
+		}
+
+		final double[] doubleMeans = getGenomeMeans(doubleFitness, genomes, seeds);
+		final double[] floatMeans = getGenomeMeans(floatFitness, genomes, seeds);
+
+		System.out.printf("%d genomes over %d seeds, %d episodes, each played at double and float precision%n", genomes, seeds, episodes);
+		System.out.printf("  identical fitness     %.1f%% of episodes%n", 100.0 * identical / episodes);
+		System.out.printf(
+			"  diverged              %.1f%% of episodes, first at tick%s%n",
+			100.0 * divergence.size() / episodes,
+			getPercentiles(divergence.stream().mapToDouble(Double::doubleValue).toArray())
+		);
+		System.out.printf("  fitness difference    mean %.2f%s%n", Arrays.stream(difference).average().orElse(0), getPercentiles(difference));
+		System.out.printf("  relative difference   mean %.2f%%%n", 100.0 * relative / episodes);
+		System.out.printf("  genome rank agreement %.4f (Spearman)%n", getRankCorrelation(doubleMeans, floatMeans));
+		System.out.printf("  same best genome      %s%n", getBest(doubleMeans) == getBest(floatMeans) ? "yes" : "no");
+	}
+
+	private static double[] getGenomeMeans(double[] fitness, int genomes, int seeds) {
+
+		final double[] means = new double[genomes];
+
+		for (int i = 0; i < fitness.length; ++i) {
+			means[i / seeds] += fitness[i] / seeds;
+		}
+
+		return means;
+	}
+
+	private static String getPercentiles(double[] values) {
+
+		if (values.length == 0) {
+			return " n/a";
+		}
+
+		Arrays.sort(values);
+
+		final StringBuilder text = new StringBuilder();
+
+		for (final int percentile : PERCENTILES) {
+			final int index = (int) Math.ceil(percentile / 100.0 * values.length) - 1;
+			text.append(String.format("  p%d %.2f", percentile, values[Math.max(0, index)]));
+		}
+
+		return text.append(String.format("  max %.2f", values[values.length - 1])).toString();
+	}
+
+	private static int getBest(double[] values) {
+
+		int best = 0;
+
+		for (int i = 1; i < values.length; ++i) {
+			if (values[i] > values[best]) {
+				best = i;
+			}
+		}
+
+		return best;
+	}
+
+	private static double getRankCorrelation(double[] a, double[] b) {
+
+		final double[] rankA = getRanks(a);
+		final double[] rankB = getRanks(b);
+
+		final double meanA = Arrays.stream(rankA).average().orElse(0);
+		final double meanB = Arrays.stream(rankB).average().orElse(0);
+
+		double covariance = 0;
+		double varianceA = 0;
+		double varianceB = 0;
+
+		for (int i = 0; i < rankA.length; ++i) {
+			covariance += (rankA[i] - meanA) * (rankB[i] - meanB);
+			varianceA += (rankA[i] - meanA) * (rankA[i] - meanA);
+			varianceB += (rankB[i] - meanB) * (rankB[i] - meanB);
+		}
+
+		return varianceA == 0 || varianceB == 0 ? 1 : covariance / Math.sqrt(varianceA * varianceB);
+	}
+
+	/**
+	 * @return The rank of each value, with tied values sharing the average of their ranks.
+	 */
+	private static double[] getRanks(double[] values) {
+
+		final Integer[] order = new Integer[values.length];
+
+		for (int i = 0; i < order.length; ++i) {
+			order[i] = i;
+		}
+
+		Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+
+		final double[] ranks = new double[values.length];
+
+		for (int start = 0; start < order.length; ) {
+
+			int end = start + 1;
+
+			while (end < order.length && values[order[end]] == values[order[start]]) {
+				++end;
+			}
+
+			for (int i = start; i < end; ++i) {
+				ranks[order[i]] = (start + end - 1) / 2.0;
+			}
+
+			start = end;
+		}
+
+		return ranks;
+	}
+}
@@ -0,0 +1,217 @@
+package com.danielbulger.asteroids;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Plays back a game recorded by a {@link ReplayRecorder}.
+ * <p>
+ * Seeking restores the nearest keyframe at or before the tick and plays forward from there, so
+ * jumping anywhere costs at most one keyframe interval of ticks.
+ * <p>
+ * The game is played with the simulation settings it was recorded with, whatever the settings
+ * passed in say, so it plays out exactly as it was recorded.
+ */
+public class Replay {
+
+	private final MappedByteBuffer buffer;
+
+	private final Settings settings;
+
+	private final int width;
+
+	private final int height;
+
+	private final long seed;
+
+	private final int length;
+
+	private final int ticks;
+
+	// Where the keyframes and actions start, straight after the header.
+	private final int start;
+
+	private int[] keyframeTicks = new int[16];
+
+	// The offset of each keyframe's snapshot, the actions for the ticks after it follow straight on.
+	private int[] keyframeOffsets = new int[16];
+
+	private int keyframes = 0;
+
+	private Game game;
+
+	private int position;
+
+	public Replay(Path path, Settings settings) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.getInt(0) != ReplayRecorder.MAGIC) {
+			throw new IOException(path + " is not a replay");
+		}
+
+		final int version = buffer.getInt(4);
+
+		if (version < 1 || version > ReplayRecorder.VERSION) {
+			throw new IOException(path + " was recorded with an unknown replay version " + version);
+		}
+
+		if (version == 1) {
+			// Recorded before the settings were, so whatever is passed in is all there is to go on.
+			this.settings = settings;
+			this.start = ReplayRecorder.HEADER_SIZE;
+		} else {
+			final int size = buffer.getInt(ReplayRecorder.HEADER_SIZE);
+			this.settings = getRecordedSettings(settings, size);
+			this.start = ReplayRecorder.HEADER_SIZE + Integer.BYTES + size;
+		}
+
+		// Keyframes hold positions at the precision they are kept at, which was always double before version 3.
+		if (version < 3 && this.settings.getIntegrator().isSinglePrecision()) {
+			throw new IOException(path + " holds float precision keyframes as doubles, which can no longer be read");
+		}
+
+		this.width = buffer.getInt(8);
+		this.height = buffer.getInt(12);
+		this.seed = buffer.getLong(16);
+		this.length = buffer.getInt(ReplayRecorder.LENGTH_OFFSET);
+		this.ticks = buffer.getInt(ReplayRecorder.TICKS_OFFSET);
+
+		index();
+
+		if (keyframes == 0) {
+			throw new IOException(path + " has no keyframes");
+		}
+
+		seek(0);
+	}
+
+	/**
+	 * @return The given settings with the simulation settings swapped for the recorded ones, those
+	 * that weren't recorded going back to their defaults.
+	 */
+	private Settings getRecordedSettings(Settings settings, int size) throws IOException {
+
+		final byte[] bytes = new byte[size];
+		final ByteBuffer header = buffer.duplicate();
+		header.position(ReplayRecorder.HEADER_SIZE + Integer.BYTES);
+		header.get(bytes);
+
+		final Properties recorded = new Properties();
+		recorded.load(new StringReader(new String(bytes, StandardCharsets.UTF_8)));
+
+		final Properties properties = settings.getProperties();
+
+		for (final String key : ReplayRecorder.SIMULATION_SETTINGS) {
+			properties.remove(key);
+		}
+
+		properties.putAll(recorded);
+
+		return Settings.fromProperties(properties);
+	}
+
+	private void index() {
+
+		int offset = start;
+
+		while (offset < length) {
+
+			if (buffer.get(offset) != ReplayRecorder.KEYFRAME) {
+				++offset;
+				continue;
+			}
+
+			if (keyframes == keyframeTicks.length) {
+				keyframeTicks = Arrays.copyOf(keyframeTicks, keyframes * 2);
+				keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframes * 2);
+			}
+
+			keyframeTicks[keyframes] = buffer.getInt(offset + 1);
+			keyframeOffsets[keyframes] = offset + 1 + (2 * Integer.BYTES);
+			++keyframes;
+
+			offset += 1 + (2 * Integer.BYTES) + buffer.getInt(offset + 1 + Integer.BYTES);
+		}
+	}
+
+	/**
+	 * Moves the game to the end of the given tick, clamped to the ticks that were recorded.
+	 */
+	public void seek(int tick) {
+
+		final int target = Math.max(0, Math.min(tick, ticks));
+
+		int keyframe = Arrays.binarySearch(keyframeTicks, 0, keyframes, target);
+
+		if (keyframe < 0) {
+			keyframe = -keyframe - 2;
+		}
+
+		final ByteBuffer snapshot = buffer.duplicate();
+		snapshot.position(keyframeOffsets[keyframe]);
+
+		game = new Game(width, height, null, settings, seed);
+		game.restore(snapshot);
+
+		position = snapshot.position();
+
+		while (game.getCurrentTick() < target) {
+			step();
+		}
+	}
+
+	/**
+	 * Plays the next recorded tick.
+	 *
+	 * @return False if every recorded tick has already been played.
+	 */
+	public boolean step() {
+
+		if (game.getCurrentTick() >= ticks || position >= length) {
+			return false;
+		}
+
+		byte action = buffer.get(position);
+
+		if (action == ReplayRecorder.KEYFRAME) {
+			position += 1 + (2 * Integer.BYTES) + buffer.getInt(position + 1 + Integer.BYTES);
+			action = buffer.get(position);
+		}
+
+		++position;
+
+		game.update(action);
+
+		return true;
+	}
+
+	public Game getGame() {
+		return game;
+	}
+
+	public int getTicks() {
+		return ticks;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The settings the replay is played with, including the recorded simulation settings.
+	 */
+	public Settings getSettings() {
+		return settings;
+	}
+}
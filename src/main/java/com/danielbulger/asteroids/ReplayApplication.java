@@ -0,0 +1,57 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.asteroids.render.GameCanvas;
+
+import javax.swing.*;
+import java.nio.file.Path;
+
+/**
+ * Watches a recorded game, optionally starting part way through.
+ * <p>
+ * Usage: {@code ReplayApplication <replay file> [start tick]}
+ */
+public class ReplayApplication extends GameCanvas {
+
+	public static void main(final String[] args) throws Exception {
+
+		if (args.length < 1) {
+			throw new IllegalArgumentException("Usage: ReplayApplication <replay file> [start tick]");
+		}
+
+		final Settings settings = Settings.fromProperties(Trainer.getProperties());
+		final Replay replay = new Replay(Path.of(args[0]), settings);
+
+		if (args.length > 1) {
+			replay.seek(Integer.parseInt(args[1]));
+		}
+
+		final ReplayApplication application = new ReplayApplication(replay);
+		application.setSize(replay.getGame().getWidth(), replay.getGame().getHeight());
+
+		final JFrame frame = new JFrame("Asteroids replay");
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+		frame.add(application);
+		frame.pack();
+		frame.setResizable(false);
+		frame.setVisible(true);
+
+		application.play(settings.getTicksPerSecond(), settings.getFramesPerSecond());
+	}
+
+	private final Replay replay;
+
+	public ReplayApplication(Replay replay) {
+		this.replay = replay;
+	}
+
+	@Override
+	protected boolean tick() {
+		return replay.step();
+	}
+
+	@Override
+	protected Game getGame() {
+		return replay.getGame();
+	}
+}
@@ -0,0 +1,174 @@
+package com.danielbulger.asteroids;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Records a game into an append-only, memory-mapped replay file.
+ * <p>
+ * The file starts with a fixed header followed by one byte per tick holding the actions the ship
+ * took. Every {@code keyframeInterval} ticks a keyframe with a full {@link Game#snapshot} is
+ * written in between the actions, so a {@link Replay} can jump to any tick by restoring the
+ * keyframe before it and playing forward from there. The header keeps the number of bytes and
+ * ticks recorded, so a file is readable up to the last tick even if the game never finished.
+ * <p>
+ * The header ends with the {@link #SIMULATION_SETTINGS} the game was played with, as
+ * {@code key=value} lines, since a game played back with different ones would drift away from the
+ * recording. Settings left at their defaults aren't written, and play back at their defaults.
+ * <p>
+ * Keyframes keep positions and velocities at the precision the game was played at, so a float
+ * precision game's keyframes are half the size.
+ */
+public class ReplayRecorder implements AutoCloseable {
+
+	static final int MAGIC = 0x41535452;
+
+	static final int VERSION = 3;
+
+	static final int LENGTH_OFFSET = 28;
+
+	static final int TICKS_OFFSET = 32;
+
+	// The size of the header up to the settings, which is the whole header for version 1.
+	static final int HEADER_SIZE = 36;
+
+	/**
+	 * The settings that change how a game plays out, which a replay is always played back with.
+	 */
+	static final List<String> SIMULATION_SETTINGS = List.of(
+		"simulation.precision", "simulation.integrator", "simulation.reuse-slots", "sensor.ray-resolution"
+	);
+
+	// Actions only use the low 4 bits, so this can never be mistaken for one.
+	static final byte KEYFRAME = (byte) 0x80;
+
+	private static final int INITIAL_CAPACITY = 64 * 1024;
+
+	private final FileChannel channel;
+
+	private final int keyframeInterval;
+
+	private MappedByteBuffer buffer;
+
+	private int ticks = 0;
+
+	public ReplayRecorder(Path path, Game game, long seed, Settings settings) throws IOException {
+
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+
+		this.keyframeInterval = settings.getKeyframeInterval();
+		this.channel = FileChannel.open(
+			path,
+			StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+			StandardOpenOption.READ, StandardOpenOption.WRITE
+		);
+		this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_CAPACITY);
+
+		final byte[] simulation = getSimulationSettings(settings.getProperties());
+
+		ensureCapacity(HEADER_SIZE + Integer.BYTES + simulation.length);
+
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(game.getWidth());
+		buffer.putInt(game.getHeight());
+		buffer.putLong(seed);
+		buffer.putInt(keyframeInterval);
+		buffer.putInt(HEADER_SIZE + Integer.BYTES + simulation.length);
+		buffer.putInt(0);
+		buffer.putInt(simulation.length);
+		buffer.put(simulation);
+	}
+
+	private static byte[] getSimulationSettings(Properties properties) {
+
+		final StringBuilder lines = new StringBuilder();
+
+		for (final String key : SIMULATION_SETTINGS) {
+			final String value = properties.getProperty(key);
+
+			if (value != null && !value.trim().isEmpty()) {
+				lines.append(key).append('=').append(value.trim()).append('\n');
+			}
+		}
+
+		return lines.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Called before each tick is played, writing a keyframe of the game as it stands if one is due.
+	 */
+	void startTick(Game game) {
+
+		if (game.getCurrentTick() % keyframeInterval != 0) {
+			return;
+		}
+
+		final int size = game.getSnapshotSize();
+
+		ensureCapacity(1 + (2 * Integer.BYTES) + size);
+
+		buffer.put(KEYFRAME);
+		buffer.putInt(game.getCurrentTick());
+		buffer.putInt(size);
+
+		game.snapshot(buffer);
+
+		buffer.putInt(LENGTH_OFFSET, buffer.position());
+	}
+
+	/**
+	 * Called once the brain has decided what to do for the tick.
+	 */
+	void record(int action) {
+
+		ensureCapacity(1);
+
+		buffer.put((byte) action);
+
+		buffer.putInt(LENGTH_OFFSET, buffer.position());
+		buffer.putInt(TICKS_OFFSET, ++ticks);
+	}
+
+	private void ensureCapacity(int bytes) {
+
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+
+		final int position = buffer.position();
+		final long capacity = Math.max((long) buffer.capacity() * 2, (long) position + bytes);
+
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		buffer.position(position);
+	}
+
+	public int getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Flushes the recording to disk. The file may be left longer than the recording, readers only
+	 * go as far as the length in the header.
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+}
@@ -0,0 +1,188 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Plays saved genomes through many seeded games on every core, without drawing anything, and
+ * prints how their score, length and accuracy are spread, so a genome can be judged on thousands
+ * of games rather than the few watched in the demo window.
+ * <p>
+ * Usage: {@code ScoreApplication [--episodes N] [--seed S] <genome or checkpoint>...}
+ * <p>
+ * A checkpoint is scored by its best genome. Every genome plays the same seeds, so runs with the
+ * same arguments always print the same distributions and genomes can be compared directly.
+ */
+public class ScoreApplication {
+
+	private static final int DEFAULT_EPISODES = 1000;
+
+	private static final int[] PERCENTILES = {10, 50, 90};
+
+	public static void main(final String[] args) throws Exception {
+
+		int episodes = DEFAULT_EPISODES;
+		long seed = 0;
+		final List<Path> files = new ArrayList<>();
+
+		for (int i = 0; i < args.length; ++i) {
+			if ("--episodes".equals(args[i]) && i + 1 < args.length) {
+				episodes = Integer.parseInt(args[++i]);
+			} else if ("--seed".equals(args[i]) && i + 1 < args.length) {
+				seed = Long.parseLong(args[++i]);
+			} else {
+				files.add(Path.of(args[i]));
+			}
+		}
+
+		if (files.isEmpty() || episodes < 1) {
+			throw new IllegalArgumentException("Usage: ScoreApplication [--episodes N] [--seed S] <genome or checkpoint>...");
+		}
+
+		final Settings settings = Settings.fromProperties(Trainer.getProperties());
+
+		final long[] seeds = new long[episodes];
+		final SplittableRandom random = new SplittableRandom(seed);
+
+		for (int i = 0; i < seeds.length; ++i) {
+			seeds[i] = random.nextLong();
+		}
+
+		System.out.printf("Playing %d episodes from seed %d on %d threads%n", episodes, seed, settings.getThreads());
+
+		final ExecutorService workers = Executors.newFixedThreadPool(settings.getThreads());
+
+		try {
+			for (final Path file : files) {
+				score(file, read(file), seeds, settings, workers);
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return The genome saved in the file, or the best genome if it is a checkpoint.
+	 */
+	static Genome read(Path file) throws IOException {
+
+		InputStream input = new BufferedInputStream(Files.newInputStream(file));
+
+		// Checkpoints are compressed, genomes written straight out with an ObjectOutputStream aren't.
+		input.mark(2);
+		final boolean compressed = input.read() == 0x1f && input.read() == 0x8b;
+		input.reset();
+
+		if (compressed) {
+			input = new GZIPInputStream(input);
+		}
+
+		try (ObjectInputStream objects = Serialisation.newInputStream(input)) {
+
+			final Object object = objects.readObject();
+
+			if (object instanceof Checkpoint) {
+				return ((Checkpoint) object).getBest();
+			}
+
+			if (object instanceof Genome) {
+				return (Genome) object;
+			}
+
+			throw new IOException(file + " holds neither a genome nor a checkpoint");
+
+		} catch (ClassNotFoundException exception) {
+			throw new IOException("Unreadable genome " + file, exception);
+		}
+	}
+
+	private static void score(
+		Path file, Genome genome, long[] seeds, Settings settings, ExecutorService workers
+	) throws Exception {
+
+		final int[] scores = new int[seeds.length];
+		final int[] ticks = new int[seeds.length];
+		final double[] accuracy = new double[seeds.length];
+		final double[] fitness = new double[seeds.length];
+
+		// Game lengths vary wildly, so threads take the next seed as they go rather than a fixed share.
+		final AtomicInteger next = new AtomicInteger();
+		final List<Future<?>> futures = new ArrayList<>();
+
+		final long start = System.nanoTime();
+
+		for (int thread = 0; thread < settings.getThreads(); ++thread) {
+			futures.add(workers.submit(() -> {
+
+				// Games of the same genome run at the same time, so each thread gets its own copy.
+				final Genome player = new Genome(genome);
+
+				for (int i = next.getAndIncrement(); i < seeds.length; i = next.getAndIncrement()) {
+
+					final Game game = new Game(Trainer.WIDTH, Trainer.HEIGHT, player, settings, seeds[i]);
+
+					while (!game.isFinished()) {
+						game.update();
+					}
+
+					game.finish();
+
+					final GameState state = game.getState();
+					scores[i] = state.getScore();
+					ticks[i] = state.getTicks();
+					accuracy[i] = state.getShotsFired() == 0 ? 0 : (double) state.getShotsHit() / state.getShotsFired();
+					fitness[i] = game.getFitness();
+				}
+			}));
+		}
+
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+
+		final double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+		System.out.printf(
+			"%s: %d episodes in %.2f s, %.1f episodes/s%n", file, seeds.length, seconds, seeds.length / seconds
+		);
+
+		print("score", Arrays.stream(scores).asDoubleStream().toArray());
+		print("ticks", Arrays.stream(ticks).asDoubleStream().toArray());
+		print("accuracy", accuracy);
+		print("fitness", fitness);
+	}
+
+	private static void print(String name, double[] values) {
+
+		Arrays.sort(values);
+
+		final StringBuilder line = new StringBuilder(String.format(
+			"  %-9s mean %10.2f  min %10.2f", name, Arrays.stream(values).average().orElse(0), values[0]
+		));
+
+		for (final int percentile : PERCENTILES) {
+			final int index = (int) Math.ceil(percentile / 100.0 * values.length) - 1;
+			line.append(String.format("  p%d %10.2f", percentile, values[Math.max(0, index)]));
+		}
+
+		line.append(String.format("  max %10.2f", values[values.length - 1]));
+
+		System.out.println(line);
+	}
+}
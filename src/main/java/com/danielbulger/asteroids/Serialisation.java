@@ -0,0 +1,62 @@
+package com.danielbulger.asteroids;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+
+/**
+ * Reads genomes and checkpoints back from their serialised form.
+ * <p>
+ * Genomes arrive over the network from whoever connects as a coordinator, and genome and
+ * checkpoint files get passed around, so the bytes can't be trusted to name the classes they are
+ * made of. Only the NEAT classes, the checkpoint, and the JDK collections and boxed numbers they
+ * hold are let through, anything else fails the read.
+ */
+public final class Serialisation {
+
+	private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(String.join(";",
+		"maxdepth=64",
+		"maxrefs=1000000",
+		"maxarray=10000000",
+		"com.danielbulger.neat.**",
+		"com.danielbulger.asteroids.Checkpoint",
+		"java.util.ArrayList",
+		"java.util.LinkedList",
+		"java.util.ArrayDeque",
+		"java.util.HashMap",
+		"java.util.LinkedHashMap",
+		"java.util.TreeMap",
+		"java.util.HashSet",
+		"java.util.LinkedHashSet",
+		"java.util.TreeSet",
+		"java.util.Collections$*",
+		"java.util.ImmutableCollections$*",
+		"java.util.CollSer",
+		// Only ever matches the Object[] that collections keep their elements in.
+		"java.lang.Object",
+		"java.lang.Enum",
+		"java.lang.Number",
+		"java.lang.Boolean",
+		"java.lang.Integer",
+		"java.lang.Long",
+		"java.lang.Float",
+		"java.lang.Double",
+		"java.lang.String",
+		"!*"
+	));
+
+	/**
+	 * @return A stream that only reads genomes, checkpoints and what they are made of.
+	 */
+	public static ObjectInputStream newInputStream(InputStream input) throws IOException {
+
+		final ObjectInputStream objects = new ObjectInputStream(input);
+		objects.setObjectInputFilter(FILTER);
+
+		return objects;
+	}
+
+	private Serialisation() {
+	}
+}
@@ -0,0 +1,523 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.asteroids.entity.Integrator;
+import com.danielbulger.asteroids.entity.Integrators;
+
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+public class Settings {
+
+	private static final double DEFAULT_RAY_RESOLUTION = 1.0;
+
+	private static final int DEFAULT_INPUT_NODES = 25;
+
+	private static final int DEFAULT_SLICE_TICKS = 1000;
+
+	private static final int DEFAULT_CHECKPOINT_INTERVAL = 10;
+
+	private static final int DEFAULT_REPLAY_INTERVAL = 10;
+
+	private static final int DEFAULT_KEYFRAME_INTERVAL = 600;
+
+	private static final int DEFAULT_TICKS_PER_SECOND = 60;
+
+	private static final int DEFAULT_FRAMES_PER_SECOND = 60;
+
+	private static final int DEFAULT_CACHE_SIZE = 4096;
+
+	private static final int DEFAULT_WORKERS = 2;
+
+	private static final String DEFAULT_COORDINATOR_ADDRESS = "127.0.0.1";
+
+	private static final int MAX_PORT = 65535;
+
+	private static final int DEFAULT_MIGRATION_INTERVAL = 10;
+
+	private static final int DEFAULT_MIGRANTS = 2;
+
+	private static final SplittableRandom SEEDS = new SplittableRandom();
+
+	public static Settings defaults() {
+		return fromProperties(new Properties());
+	}
+
+	public static Settings fromProperties(Properties properties) {
+		return new Settings(properties);
+	}
+
+	private static String getString(Properties properties, String key) {
+		final String value = properties.getProperty(key);
+
+		if (value == null || value.trim().isEmpty()) {
+			return null;
+		}
+
+		return value.trim();
+	}
+
+	private static int getInt(Properties properties, String key, int defaultValue) {
+		final String value = getString(properties, key);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+	private static long getLong(Properties properties, String key, long defaultValue) {
+		final String value = getString(properties, key);
+		return value == null ? defaultValue : Long.parseLong(value);
+	}
+
+	private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+		final String value = getString(properties, key);
+		return value == null ? defaultValue : Boolean.parseBoolean(value);
+	}
+
+	private static double getDouble(Properties properties, String key, double defaultValue) {
+		final String value = getString(properties, key);
+		return value == null ? defaultValue : Double.parseDouble(value);
+	}
+
+	private static void requireNonNegative(String key, double value) {
+		if (value < 0) {
+			throw new IllegalArgumentException(key + " must not be negative");
+		}
+	}
+
+	private final double rayResolution;
+
+	private final int inputNodes;
+
+	private final long seed;
+
+	private final int maxTicks;
+
+	private final int stagnationTicks;
+
+	private final long generationTimeBudget;
+
+	private final int episodes;
+
+	private final FitnessAggregator aggregator;
+
+	private final String evaluator;
+
+	private final int threads;
+
+	private final int sliceTicks;
+
+	private final Integrator integrator;
+
+	private final boolean reuseSlots;
+
+	private final Path checkpointFile;
+
+	private final int checkpointInterval;
+
+	private final Path replayDirectory;
+
+	private final int replayInterval;
+
+	private final int keyframeInterval;
+
+	private final int ticksPerSecond;
+
+	private final int framesPerSecond;
+
+	private final Path metricsFile;
+
+	private final int cacheSize;
+
+	private final boolean fixedSeeds;
+
+	private final int workers;
+
+	private final String coordinatorAddress;
+
+	private final int coordinatorPort;
+
+	private final int lanes;
+
+	private final int islandPopulation;
+
+	private final int migrationInterval;
+
+	private final int migrants;
+
+	// Kept so the same settings can be handed to other processes.
+	private final Properties properties = new Properties();
+
+	private Settings(Properties properties) {
+		for (final String key : properties.stringPropertyNames()) {
+			this.properties.setProperty(key, properties.getProperty(key));
+		}
+
+		this.rayResolution = getDouble(properties, "sensor.ray-resolution", DEFAULT_RAY_RESOLUTION);
+		this.inputNodes = getInt(properties, "genome.input-nodes", DEFAULT_INPUT_NODES);
+		this.seed = getLong(properties, "simulation.seed", SEEDS.nextLong());
+		this.maxTicks = getInt(properties, "episode.max-ticks", 0);
+		this.stagnationTicks = getInt(properties, "episode.stagnation-ticks", 0);
+		this.generationTimeBudget = getLong(properties, "generation.time-budget-ms", 0);
+		this.episodes = getInt(properties, "evaluation.episodes", 1);
+
+		final String aggregate = getString(properties, "evaluation.aggregate");
+		this.aggregator = FitnessAggregator.parse(aggregate == null ? "mean" : aggregate);
+
+		final String evaluator = getString(properties, "evaluation.evaluator");
+		this.evaluator = evaluator == null ? "fork-join" : evaluator;
+		this.threads = getInt(properties, "evaluation.threads", Runtime.getRuntime().availableProcessors());
+		this.sliceTicks = getInt(properties, "evaluation.slice-ticks", DEFAULT_SLICE_TICKS);
+
+		final String integrator = getString(properties, "simulation.integrator");
+		final String precision = getString(properties, "simulation.precision");
+		this.integrator = Integrators.create(
+			integrator == null ? "scalar" : integrator, precision == null ? "double" : precision
+		);
+
+		this.reuseSlots = getBoolean(properties, "simulation.reuse-slots", true);
+
+		final String checkpointFile = getString(properties, "checkpoint.file");
+		this.checkpointFile = checkpointFile == null ? null : Path.of(checkpointFile);
+		this.checkpointInterval = getInt(properties, "checkpoint.interval", DEFAULT_CHECKPOINT_INTERVAL);
+
+		final String replayDirectory = getString(properties, "replay.directory");
+		this.replayDirectory = replayDirectory == null ? null : Path.of(replayDirectory);
+		this.replayInterval = getInt(properties, "replay.interval", DEFAULT_REPLAY_INTERVAL);
+		this.keyframeInterval = getInt(properties, "replay.keyframe-interval", DEFAULT_KEYFRAME_INTERVAL);
+
+		this.ticksPerSecond = getInt(properties, "display.ticks-per-second", DEFAULT_TICKS_PER_SECOND);
+		this.framesPerSecond = getInt(properties, "display.frames-per-second", DEFAULT_FRAMES_PER_SECOND);
+
+		final String metricsFile = getString(properties, "metrics.file");
+		this.metricsFile = metricsFile == null ? null : Path.of(metricsFile);
+
+		this.cacheSize = getInt(properties, "evaluation.cache-size", DEFAULT_CACHE_SIZE);
+		this.fixedSeeds = getBoolean(properties, "evaluation.fixed-seeds", false);
+
+		this.workers = getInt(properties, "evaluation.workers", DEFAULT_WORKERS);
+		final String coordinatorAddress = getString(properties, "evaluation.coordinator-address");
+		this.coordinatorAddress = coordinatorAddress == null ? DEFAULT_COORDINATOR_ADDRESS : coordinatorAddress;
+		this.coordinatorPort = getInt(properties, "evaluation.coordinator-port", 0);
+
+		this.lanes = getInt(properties, "evolution.lanes", 1);
+		this.islandPopulation = getInt(properties, "evolution.island-population", 0);
+		this.migrationInterval = getInt(properties, "evolution.migration-interval", DEFAULT_MIGRATION_INTERVAL);
+		this.migrants = getInt(properties, "evolution.migrants", DEFAULT_MIGRANTS);
+
+		requireNonNegative("sensor.ray-resolution", rayResolution);
+		requireNonNegative("episode.max-ticks", maxTicks);
+		requireNonNegative("episode.stagnation-ticks", stagnationTicks);
+		requireNonNegative("generation.time-budget-ms", generationTimeBudget);
+		requireNonNegative("evaluation.cache-size", cacheSize);
+		requireNonNegative("evaluation.workers", workers);
+		requireNonNegative("evaluation.coordinator-port", coordinatorPort);
+		requireNonNegative("evolution.island-population", islandPopulation);
+		requireNonNegative("evolution.migration-interval", migrationInterval);
+		requireNonNegative("evolution.migrants", migrants);
+
+		if (coordinatorPort > MAX_PORT) {
+			throw new IllegalArgumentException("evaluation.coordinator-port must be at most " + MAX_PORT);
+		}
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("evaluation.threads must be at least 1");
+		}
+
+		if (sliceTicks < 1) {
+			throw new IllegalArgumentException("evaluation.slice-ticks must be at least 1");
+		}
+
+		if (episodes < 1) {
+			throw new IllegalArgumentException("evaluation.episodes must be at least 1");
+		}
+
+		if (checkpointInterval < 1) {
+			throw new IllegalArgumentException("checkpoint.interval must be at least 1");
+		}
+
+		if (replayInterval < 1) {
+			throw new IllegalArgumentException("replay.interval must be at least 1");
+		}
+
+		if (keyframeInterval < 1) {
+			throw new IllegalArgumentException("replay.keyframe-interval must be at least 1");
+		}
+
+		if (ticksPerSecond < 1) {
+			throw new IllegalArgumentException("display.ticks-per-second must be at least 1");
+		}
+
+		if (framesPerSecond < 1) {
+			throw new IllegalArgumentException("display.frames-per-second must be at least 1");
+		}
+
+		if (lanes < 1) {
+			throw new IllegalArgumentException("evolution.lanes must be at least 1");
+		}
+
+		if (inputNodes < 2) {
+			throw new IllegalArgumentException("genome.input-nodes must leave room for at least one sensor");
+		}
+	}
+
+	public double getRayResolution() {
+		return rayResolution;
+	}
+
+	/**
+	 * @return The number of inputs the brain senses when it isn't being driven by a genome.
+	 */
+	public int getInputNodes() {
+		return inputNodes;
+	}
+
+	/**
+	 * @return The seed that every training game is derived from.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The number of ticks after which a training game is stopped, or 0 for no limit.
+	 */
+	public int getMaxTicks() {
+		return maxTicks;
+	}
+
+	/**
+	 * @return The number of ticks a training game may go without scoring before it is stopped,
+	 * or 0 for no limit.
+	 */
+	public int getStagnationTicks() {
+		return stagnationTicks;
+	}
+
+	/**
+	 * @return The wall-clock milliseconds a generation may spend playing before every game still
+	 * running is stopped, or 0 for no limit. Any limit makes fitness depend on the speed of the
+	 * machine rather than only the genome and seed.
+	 */
+	public long getGenerationTimeBudget() {
+		return generationTimeBudget;
+	}
+
+	/**
+	 * @return The number of differently seeded games each genome plays per generation.
+	 */
+	public int getEpisodes() {
+		return episodes;
+	}
+
+	public FitnessAggregator getAggregator() {
+		return aggregator;
+	}
+
+	/**
+	 * @return How the episodes of a generation are spread over the workers, one of {@code fixed},
+	 * {@code fork-join} or {@code distributed}.
+	 */
+	public String getEvaluator() {
+		return evaluator;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return The number of ticks the fork-join evaluator plays before an episode may move to
+	 * another worker.
+	 */
+	public int getSliceTicks() {
+		return sliceTicks;
+	}
+
+	/**
+	 * @return How entity positions are moved each tick, and the precision they are kept at,
+	 * shared by every game.
+	 */
+	public Integrator getIntegrator() {
+		return integrator;
+	}
+
+	/**
+	 * @return Whether destroyed asteroids and expired bullets hand their slots on to new ones,
+	 * rather than every new one being added after the rest.
+	 */
+	public boolean isReuseSlots() {
+		return reuseSlots;
+	}
+
+	/**
+	 * @return Where the population is checkpointed, or null to not checkpoint at all.
+	 */
+	public Path getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	/**
+	 * @return The number of generations between checkpoints.
+	 */
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	/**
+	 * @return Where training games are recorded, or null to not record them.
+	 */
+	public Path getReplayDirectory() {
+		return replayDirectory;
+	}
+
+	/**
+	 * @return The number of generations between the generations whose games are recorded.
+	 */
+	public int getReplayInterval() {
+		return replayInterval;
+	}
+
+	/**
+	 * @return The number of ticks between the keyframes of a replay.
+	 */
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+
+	/**
+	 * @return The number of ticks a game shown in a window plays each second.
+	 */
+	public int getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	/**
+	 * @return The number of times a second a game shown in a window is redrawn.
+	 */
+	public int getFramesPerSecond() {
+		return framesPerSecond;
+	}
+
+	/**
+	 * @return Where the stats of each generation are appended, or null to only publish them over
+	 * JMX.
+	 */
+	public Path getMetricsFile() {
+		return metricsFile;
+	}
+
+	/**
+	 * @return The number of episode results remembered so unchanged genomes don't replay the same
+	 * game, or 0 to always play. Only used with {@link #isFixedSeeds()}.
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * @return Whether every generation plays the same episode seeds, rather than new ones each
+	 * generation.
+	 */
+	public boolean isFixedSeeds() {
+		return fixedSeeds;
+	}
+
+	/**
+	 * @return The number of worker processes the distributed evaluator starts on this machine,
+	 * more can connect from elsewhere.
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * @return The address the distributed evaluator listens on for workers.
+	 */
+	public String getCoordinatorAddress() {
+		return coordinatorAddress;
+	}
+
+	/**
+	 * @return The port the distributed evaluator listens on for workers, or 0 for any free port.
+	 */
+	public int getCoordinatorPort() {
+		return coordinatorPort;
+	}
+
+	/**
+	 * @return The number of populations evolved side by side, each at its own pace, so one
+	 * population's slowest episode or evolve step never leaves the cores idle.
+	 */
+	public int getLanes() {
+		return lanes;
+	}
+
+	/**
+	 * @return The size of each lane's population, or 0 for every lane to have the whole of
+	 * {@code population.initial-size}.
+	 */
+	public int getIslandPopulation() {
+		return islandPopulation;
+	}
+
+	/**
+	 * @return The number of generations between each lane sending its fittest genomes to the
+	 * next, or 0 to keep the lanes apart.
+	 */
+	public int getMigrationInterval() {
+		return migrationInterval;
+	}
+
+	/**
+	 * @return The number of genomes a lane sends each migration.
+	 */
+	public int getMigrants() {
+		return migrants;
+	}
+
+	/**
+	 * @return A copy of the properties these settings were read from.
+	 */
+	public Properties getProperties() {
+
+		final Properties copy = new Properties();
+		copy.putAll(properties);
+
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		return "Settings{" +
+			"rayResolution=" + rayResolution +
+			", inputNodes=" + inputNodes +
+			", seed=" + seed +
+			", maxTicks=" + maxTicks +
+			", stagnationTicks=" + stagnationTicks +
+			", generationTimeBudget=" + generationTimeBudget +
+			", episodes=" + episodes +
+			", aggregator=" + aggregator +
+			", evaluator=" + evaluator +
+			", threads=" + threads +
+			", sliceTicks=" + sliceTicks +
+			", integrator=" + integrator.getClass().getSimpleName() +
+			", reuseSlots=" + reuseSlots +
+			", checkpointFile=" + checkpointFile +
+			", checkpointInterval=" + checkpointInterval +
+			", replayDirectory=" + replayDirectory +
+			", replayInterval=" + replayInterval +
+			", keyframeInterval=" + keyframeInterval +
+			", ticksPerSecond=" + ticksPerSecond +
+			", framesPerSecond=" + framesPerSecond +
+			", metricsFile=" + metricsFile +
+			", cacheSize=" + cacheSize +
+			", fixedSeeds=" + fixedSeeds +
+			", workers=" + workers +
+			", coordinatorAddress=" + coordinatorAddress +
+			", coordinatorPort=" + coordinatorPort +
+			", lanes=" + lanes +
+			", islandPopulation=" + islandPopulation +
+			", migrationInterval=" + migrationInterval +
+			", migrants=" + migrants +
+			'}';
+	}
+}
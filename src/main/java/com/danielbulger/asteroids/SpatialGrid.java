@@ -0,0 +1,151 @@
+package com.danielbulger.asteroids;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid broad-phase over the playing field.
+ * <p>
+ * Each circle is stored in every cell its bounding box overlaps, so a query only has to look at
+ * the cells covered by its own bounds. Anything outside the field (e.g. the ship's points as it
+ * wraps around) is clamped onto the border cells, which matches the non-wrapping narrow phase in
+ * {@link Collision}.
+ */
+public class SpatialGrid {
+
+	private static final int INITIAL_CELL_CAPACITY = 4;
+
+	private final double cellSize;
+
+	private final int columns;
+
+	private final int rows;
+
+	private final int[][] cells;
+
+	private final int[] counts;
+
+	private int[] marks = new int[16];
+
+	private int stamp = 0;
+
+	private int[] results = new int[16];
+
+	public SpatialGrid(double width, double height, double cellSize) {
+		this.cellSize = cellSize;
+		this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+		this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+		this.cells = new int[columns * rows][INITIAL_CELL_CAPACITY];
+		this.counts = new int[columns * rows];
+	}
+
+	public void clear() {
+		Arrays.fill(counts, 0);
+	}
+
+	public void insert(int id, double x, double y, double radius) {
+
+		final int minColumn = getColumn(x - radius);
+		final int maxColumn = getColumn(x + radius);
+		final int minRow = getRow(y - radius);
+		final int maxRow = getRow(y + radius);
+
+		for (int row = minRow; row <= maxRow; ++row) {
+			for (int column = minColumn; column <= maxColumn; ++column) {
+				add(row * columns + column, id);
+			}
+		}
+
+		if (id >= marks.length) {
+			marks = Arrays.copyOf(marks, Math.max(id + 1, marks.length * 2));
+		}
+	}
+
+	private void add(int cell, int id) {
+
+		if (counts[cell] == cells[cell].length) {
+			cells[cell] = Arrays.copyOf(cells[cell], cells[cell].length * 2);
+		}
+
+		cells[cell][counts[cell]++] = id;
+	}
+
+	/**
+	 * Collects every id whose bounds overlap the given area, in ascending order with no duplicates.
+	 *
+	 * @return The number of ids found, which can be read back through {@link #getResult(int)}.
+	 */
+	public int query(double minX, double minY, double maxX, double maxY) {
+
+		final int minColumn = getColumn(minX);
+		final int maxColumn = getColumn(maxX);
+		final int minRow = getRow(minY);
+		final int maxRow = getRow(maxY);
+
+		if (++stamp == 0) {
+			Arrays.fill(marks, 0);
+			stamp = 1;
+		}
+
+		int found = 0;
+
+		for (int row = minRow; row <= maxRow; ++row) {
+			for (int column = minColumn; column <= maxColumn; ++column) {
+
+				final int cell = row * columns + column;
+
+				for (int i = 0; i < counts[cell]; ++i) {
+
+					final int id = cells[cell][i];
+
+					if (marks[id] == stamp) {
+						continue;
+					}
+
+					marks[id] = stamp;
+
+					if (found == results.length) {
+						results = Arrays.copyOf(results, results.length * 2);
+					}
+
+					results[found++] = id;
+				}
+			}
+		}
+
+		Arrays.sort(results, 0, found);
+
+		return found;
+	}
+
+	public int getResult(int index) {
+		return results[index];
+	}
+
+	public int getColumn(double x) {
+		return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+	}
+
+	public int getRow(double y) {
+		return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+	}
+
+	public int getCellCount(int column, int row) {
+		return counts[row * columns + column];
+	}
+
+	public int getCellItem(int column, int row, int index) {
+		return cells[row * columns + column][index];
+	}
+
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+}
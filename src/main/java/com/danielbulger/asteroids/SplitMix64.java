@@ -0,0 +1,45 @@
+package com.danielbulger.asteroids;
+
+/**
+ * The same generator as {@link java.util.SplittableRandom} seeded with a single long, producing
+ * exactly the same sequence, except its state can be read and set again.
+ * <p>
+ * Games draw from this so a replay keyframe can capture where the random sequence was up to.
+ */
+public class SplitMix64 {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	private long state;
+
+	public SplitMix64(long seed) {
+		this.state = seed;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	public long nextLong() {
+		return mix64(state += GOLDEN_GAMMA);
+	}
+
+	/**
+	 * @return A value between 0 inclusive and 1 exclusive.
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	public long getState() {
+		return state;
+	}
+
+	public void setState(long state) {
+		this.state = state;
+	}
+}
@@ -0,0 +1,390 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.asteroids.jfr.EvolveEvent;
+import com.danielbulger.asteroids.jfr.GenerationEvent;
+import com.danielbulger.neat.Evolution;
+import com.danielbulger.neat.Genome;
+import com.danielbulger.neat.evaluate.SpeciesDistanceClassifier;
+import com.danielbulger.neat.select.WeightedFitnessSelect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+public class Trainer implements Training {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Trainer.class.getName());
+
+	public static final int WIDTH = 800;
+
+	public static final int HEIGHT = 800;
+
+	public static Properties getProperties() throws Exception {
+
+		final Properties properties = new Properties();
+		final URL url = Trainer.class.getClassLoader().getResource("neat.properties");
+
+		if (url == null) {
+			throw new Exception("No properties file founds");
+		}
+
+		try (InputStream input = url.openStream()) {
+			properties.load(input);
+		}
+
+		// Any setting can be overridden from the command line, e.g. -Dsimulation.integrator=vector
+		for (final String key : properties.stringPropertyNames()) {
+			final String override = System.getProperty(key);
+
+			if (override != null) {
+				properties.setProperty(key, override);
+			}
+		}
+
+		return properties;
+	}
+
+	/**
+	 * @return A trainer for the settings, with the population split into pipelined lanes when
+	 * {@code evolution.lanes} asks for more than one.
+	 */
+	public static Training create(Properties properties) {
+
+		final Settings settings = Settings.fromProperties(properties);
+
+		if (settings.getLanes() > 1) {
+			return new PipelinedTrainer(properties, settings);
+		}
+
+		return new Trainer(getEvolution(properties), settings);
+	}
+
+	public static Evolution getEvolution(Properties properties) {
+		return new Evolution(
+			properties,
+			new SpeciesDistanceClassifier(1.5f, 1.5f, 0.8f, 1.0f),
+			new WeightedFitnessSelect()
+		);
+	}
+
+	private final Evolution evolution;
+
+	private final Settings settings;
+
+	private final GenerationEvaluator evaluator;
+
+	// Whether the evaluator is this trainer's to close, rather than shared with other trainers.
+	private final boolean ownsEvaluator;
+
+	private final CheckpointWriter checkpoints;
+
+	private final TrainingMetrics metrics;
+
+	private final FitnessCache cache;
+
+	// The seeds every generation plays when they are fixed, drawn by the first generation.
+	private long[] fixedSeeds;
+
+	// The seed the episode seeds are drawn from, which comes from the checkpoint after a resume.
+	private long seed;
+
+	private SplittableRandom seeds;
+
+	// The number of generations played so far.
+	private int generations;
+
+	// How this trainer swaps genomes with the trainers beside it, or null if it doesn't.
+	private Migration migration;
+
+	private volatile boolean running = true;
+
+	private volatile Genome best;
+
+	public Trainer(Evolution evolution, Settings settings) {
+		this(evolution, settings, createEvaluator(settings), true);
+	}
+
+	/**
+	 * A trainer that plays its generations on an evaluator shared with other trainers, which is
+	 * left open when this one shuts down.
+	 */
+	Trainer(Evolution evolution, Settings settings, GenerationEvaluator evaluator) {
+		this(evolution, settings, evaluator, false);
+	}
+
+	private Trainer(Evolution evolution, Settings settings, GenerationEvaluator evaluator, boolean ownsEvaluator) {
+		this.evolution = evolution;
+		this.settings = settings;
+		this.evaluator = evaluator;
+		this.ownsEvaluator = ownsEvaluator;
+		this.seed = settings.getSeed();
+		this.seeds = new SplittableRandom(seed);
+		this.best = evolution.getGenomes().get(0);
+		this.checkpoints = settings.getCheckpointFile() == null ? null : new CheckpointWriter(settings.getCheckpointFile());
+		// With new seeds every generation a result is never looked up again, so the fingerprints aren't
+		// worth taking.
+		this.cache = settings.isFixedSeeds() && settings.getCacheSize() > 0
+			? new FitnessCache(settings.getCacheSize())
+			: null;
+
+		try {
+			this.metrics = new TrainingMetrics(settings);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		LOG.info("Training with seed {}", settings.getSeed());
+	}
+
+	@Override
+	public void resume(Path checkpoint) throws IOException {
+		resume(Checkpoint.read(checkpoint));
+	}
+
+	/**
+	 * Replaces the population with the one from a checkpoint, so training carries on from the
+	 * generation the checkpoint was taken at with the same episode seeds it would have played.
+	 */
+	public void resume(Checkpoint checkpoint) {
+
+		final List<Genome> genomes = evolution.getGenomes();
+
+		genomes.clear();
+		genomes.addAll(checkpoint.getGenomes());
+
+		best = checkpoint.getBest();
+		generations = checkpoint.getGeneration();
+		seed = checkpoint.getSeed();
+		seeds = new SplittableRandom(seed);
+
+		fixedSeeds = null;
+
+		// Fixed seeds are only ever drawn once, by the first generation.
+		for (long i = settings.isFixedSeeds() ? 0 : (long) generations * settings.getEpisodes(); i > 0; --i) {
+			seeds.nextLong();
+		}
+
+		LOG.info(
+			"Resumed at generation {} with {} genomes and seed {}",
+			generations, genomes.size(), seed
+		);
+	}
+
+	static GenerationEvaluator createEvaluator(Settings settings) {
+		switch (settings.getEvaluator()) {
+			case "fixed":
+				return new FixedPoolEvaluator(settings.getThreads());
+
+			case "fork-join":
+				return new ForkJoinEvaluator(settings.getThreads(), settings.getSliceTicks());
+
+			case "distributed":
+				try {
+					return new DistributedEvaluator(settings);
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+
+			default:
+				throw new IllegalArgumentException("Unknown evaluation.evaluator: " + settings.getEvaluator());
+		}
+	}
+
+	@Override
+	public void run() {
+		runTrainingGames();
+	}
+
+	private void runTrainingGames() {
+
+		try {
+			while (running) {
+				runGeneration();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		} finally {
+			shutdown();
+		}
+	}
+
+	private long[] drawSeeds() {
+
+		final long[] drawn = new long[settings.getEpisodes()];
+
+		for (int i = 0; i < drawn.length; ++i) {
+			drawn[i] = seeds.nextLong();
+		}
+
+		if (settings.isFixedSeeds()) {
+			fixedSeeds = drawn;
+		}
+
+		return drawn;
+	}
+
+	/**
+	 * Plays every episode for every genome in the population then evolves the next generation.
+	 *
+	 * @return The best genome of the generation that was just played.
+	 */
+	public Genome runGeneration() throws InterruptedException {
+
+		final List<Genome> genomes = evolution.getGenomes();
+
+		// Every genome plays the same games so their fitness is directly comparable.
+		final long[] episodeSeeds = fixedSeeds != null ? fixedSeeds : drawSeeds();
+
+		// Every so often record the whole generation, so its games can be watched afterwards.
+		final Path replays = settings.getReplayDirectory() != null && generations % settings.getReplayInterval() == 0
+			? settings.getReplayDirectory().resolve("generation-" + generations)
+			: null;
+
+		// Recorded generations play every episode, so there is a replay of each.
+		final Generation generation = new Generation(
+			genomes, episodeSeeds, settings, replays, replays == null ? cache : null
+		);
+
+		final GenerationEvent generationEvent = new GenerationEvent();
+		generationEvent.begin();
+
+		final long start = System.nanoTime();
+
+		evaluator.evaluate(generation);
+
+		final long elapsed = System.nanoTime() - start;
+
+		generationEvent.end();
+
+		generation.assignFitness();
+
+		final GenerationStats stats = GenerationStats.of(generations, generation, elapsed, evaluator.getParallelism());
+
+		metrics.record(stats);
+
+		if (generationEvent.shouldCommit()) {
+			generationEvent.generation = generations;
+			generationEvent.episodes = stats.getEpisodes();
+			generationEvent.ticks = stats.getTicks();
+			generationEvent.timedOut = stats.getTimedOut();
+			generationEvent.utilisation = stats.getUtilisation();
+			generationEvent.commit();
+		}
+
+		if (generation.getTimedOut() > 0) {
+			LOG.warn("{} games were stopped by the generation time budget", generation.getTimedOut());
+		}
+
+		LOG.info(
+			"Played {} episodes in {} ms with {}% core utilisation",
+			generation.getPendingCount(),
+			TimeUnit.NANOSECONDS.toMillis(elapsed),
+			Math.round((100.0 * generation.getBusyTime()) / ((double) elapsed * evaluator.getParallelism()))
+		);
+
+		if (cache != null) {
+			LOG.info(
+				"Fitness cache has had {} hits and {} misses, saving {} ticks",
+				cache.getHits(), cache.getMisses(), cache.getSavedTicks()
+			);
+		}
+
+		LOG.info(
+			"Generation {} fitness min {} mean {} max {}",
+			generations, stats.getFitnessMin(), stats.getFitnessMean(), stats.getFitnessMax()
+		);
+
+		if (migration != null && migration.isDue(generations)) {
+			migrate(genomes, episodeSeeds);
+		}
+
+		final EvolveEvent evolveEvent = new EvolveEvent();
+		evolveEvent.generation = generations;
+		evolveEvent.population = genomes.size();
+		evolveEvent.begin();
+
+		best = new Genome(evolution.evolve());
+
+		evolveEvent.commit();
+
+		LOG.info("Population completed best: {}", best);
+
+		++generations;
+
+		if (checkpoints != null && generations % settings.getCheckpointInterval() == 0) {
+			// The copies are taken here, only the writing happens in the background.
+			checkpoints.submit(new Checkpoint(seed, generations, evolution.getGenomes(), best));
+		}
+
+		return best;
+	}
+
+	/**
+	 * Sends this lane's fittest genomes on and takes in whichever arrivals beat its weakest, once
+	 * they have been played on the same seeds as this generation.
+	 */
+	private void migrate(List<Genome> genomes, long[] episodeSeeds) throws InterruptedException {
+
+		migration.send(genomes);
+
+		final List<Genome> arrived = migration.receive();
+
+		if (!arrived.isEmpty()) {
+			final Generation migrants = new Generation(arrived, episodeSeeds, settings);
+			evaluator.evaluate(migrants);
+			migrants.assignFitness();
+		}
+
+		LOG.info(
+			"Generation {} took in {} of {} migrants", generations, migration.admit(genomes, arrived), arrived.size()
+		);
+	}
+
+	void setMigration(Migration migration) {
+		this.migration = migration;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * Stops the worker threads for a trainer that was only used through {@link #runGeneration()},
+	 * waiting for any checkpoint still being written.
+	 */
+	public void shutdown() {
+
+		if (ownsEvaluator) {
+			evaluator.close();
+		}
+
+		metrics.close();
+
+		if (checkpoints != null) {
+			checkpoints.close();
+		}
+	}
+
+	public TrainingMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public Genome getBest() {
+		return best;
+	}
+
+	@Override
+	public Settings getSettings() {
+		return settings;
+	}
+}
@@ -0,0 +1,23 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Trains genomes until it is stopped, keeping the best genome so far around to be watched.
+ */
+public interface Training extends Runnable {
+
+	/**
+	 * Carries on from the checkpoint written to the given file by an earlier run.
+	 */
+	void resume(Path checkpoint) throws IOException;
+
+	void stop();
+
+	Genome getBest();
+
+	Settings getSettings();
+}
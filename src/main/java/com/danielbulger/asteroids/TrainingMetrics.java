@@ -0,0 +1,216 @@
+package com.danielbulger.asteroids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publishes the {@link GenerationStats} of each generation over JMX and, if
+ * {@code metrics.file} is set, appends them to a file as CSV or JSON lines, picked by whether the
+ * file name ends in {@code .csv}.
+ */
+public class TrainingMetrics implements TrainingMetricsMXBean, AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TrainingMetrics.class.getName());
+
+	private final ObjectName name;
+
+	private final BufferedWriter writer;
+
+	private final boolean csv;
+
+	private volatile GenerationStats latest;
+
+	private volatile long lastGeneration = System.currentTimeMillis();
+
+	public TrainingMetrics(Settings settings) throws IOException {
+
+		final Path file = settings.getMetricsFile();
+
+		this.csv = file != null && file.getFileName().toString().endsWith(".csv");
+
+		if (file == null) {
+			this.writer = null;
+		} else {
+			final boolean exists = Files.exists(file) && Files.size(file) > 0;
+
+			this.writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+			if (csv && !exists) {
+				writer.write(GenerationStats.CSV_HEADER);
+				writer.newLine();
+			}
+		}
+
+		this.name = register();
+	}
+
+	private ObjectName register() {
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			// Trainers running side by side in the same JVM each get their own name.
+			for (int instance = 0; ; ++instance) {
+
+				final ObjectName name = new ObjectName(
+					"com.danielbulger.asteroids:type=Training" + (instance == 0 ? "" : ",name=trainer-" + instance)
+				);
+
+				try {
+					server.registerMBean(this, name);
+					return name;
+				} catch (InstanceAlreadyExistsException exception) {
+					// Try the next name along.
+				}
+			}
+		} catch (JMException exception) {
+			LOG.warn("Unable to register the training metrics with JMX", exception);
+			return null;
+		}
+	}
+
+	public void record(GenerationStats stats) {
+
+		latest = stats;
+		lastGeneration = System.currentTimeMillis();
+
+		if (writer == null) {
+			return;
+		}
+
+		try {
+			writer.write(csv ? stats.toCsv() : stats.toJson());
+			writer.newLine();
+			// Flushed every generation so the file is current if the run dies.
+			writer.flush();
+		} catch (IOException exception) {
+			LOG.warn("Unable to write the metrics for generation {}", stats.getGeneration(), exception);
+		}
+	}
+
+	public GenerationStats getLatest() {
+		return latest;
+	}
+
+	@Override
+	public void close() {
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		if (name != null && server.isRegistered(name)) {
+			try {
+				server.unregisterMBean(name);
+			} catch (JMException exception) {
+				LOG.warn("Unable to unregister the training metrics from JMX", exception);
+			}
+		}
+
+		if (writer != null) {
+			try {
+				writer.close();
+			} catch (IOException exception) {
+				LOG.warn("Unable to close the metrics file", exception);
+			}
+		}
+	}
+
+	@Override
+	public int getGeneration() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getGeneration();
+	}
+
+	@Override
+	public long getGenerationMillis() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getWallMillis();
+	}
+
+	@Override
+	public double getTicksPerSecond() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getTicksPerSecond();
+	}
+
+	@Override
+	public double getGamesPerSecond() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getGamesPerSecond();
+	}
+
+	@Override
+	public double getTickNanos() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getTickNanos();
+	}
+
+	@Override
+	public double getUtilisation() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getUtilisation();
+	}
+
+	@Override
+	public int getTimedOut() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getTimedOut();
+	}
+
+	@Override
+	public int getCachedEpisodes() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getCached();
+	}
+
+	@Override
+	public int getEpisodeLengthP50() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getLengths().getValueAtPercentile(50);
+	}
+
+	@Override
+	public int getEpisodeLengthP99() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getLengths().getValueAtPercentile(99);
+	}
+
+	@Override
+	public int getEpisodeLengthMax() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getLengths().getMax();
+	}
+
+	@Override
+	public float getFitnessMin() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getFitnessMin();
+	}
+
+	@Override
+	public float getFitnessMean() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getFitnessMean();
+	}
+
+	@Override
+	public float getFitnessMax() {
+		final GenerationStats stats = latest;
+		return stats == null ? 0 : stats.getFitnessMax();
+	}
+
+	@Override
+	public long getMillisSinceLastGeneration() {
+		return System.currentTimeMillis() - lastGeneration;
+	}
+}
@@ -0,0 +1,42 @@
+package com.danielbulger.asteroids;
+
+/**
+ * The latest training metrics, as seen over JMX under
+ * {@code com.danielbulger.asteroids:type=Training}.
+ */
+public interface TrainingMetricsMXBean {
+
+	int getGeneration();
+
+	long getGenerationMillis();
+
+	double getTicksPerSecond();
+
+	double getGamesPerSecond();
+
+	double getTickNanos();
+
+	double getUtilisation();
+
+	int getTimedOut();
+
+	int getCachedEpisodes();
+
+	int getEpisodeLengthP50();
+
+	int getEpisodeLengthP99();
+
+	int getEpisodeLengthMax();
+
+	float getFitnessMin();
+
+	float getFitnessMean();
+
+	float getFitnessMax();
+
+	/**
+	 * @return The milliseconds since the last generation finished, which keeps growing if
+	 * training has stalled.
+	 */
+	long getMillisSinceLastGeneration();
+}
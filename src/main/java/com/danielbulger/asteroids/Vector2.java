@@ -2,6 +2,30 @@ package com.danielbulger.asteroids;
 
 public class Vector2 {
 
+	public static double wrap(double value, double min, double max) {
+		if (value < min) {
+			return max;
+		}
+
+		if (value > max) {
+			return min;
+		}
+
+		return value;
+	}
+
+	public static float wrap(float value, float min, float max) {
+		if (value < min) {
+			return max;
+		}
+
+		if (value > max) {
+			return min;
+		}
+
+		return value;
+	}
+
 	public static Vector2 fromAngle(double rad) {
 		return new Vector2(
 			Math.cos(rad),
@@ -62,17 +86,8 @@ public class Vector2 {
 	}
 
 	public void wrap(double minX, double minY, double maxX, double maxY) {
-		if (x < minX) {
-			x = maxX;
-		} else if (x > maxX) {
-			x = minX;
-		}
-
-		if (y < minY) {
-			y = maxY;
-		} else if (y > maxY) {
-			y = minY;
-		}
+		x = wrap(x, minX, maxX);
+		y = wrap(y, minY, maxY);
 	}
 
 	public double length() {
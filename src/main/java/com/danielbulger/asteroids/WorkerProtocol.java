@@ -0,0 +1,173 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.neat.Genome;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * The messages a {@link DistributedEvaluator} and its {@link EvaluationWorker}s send each other
+ * over TCP, each a type byte followed by big-endian fields.
+ * <pre>
+ * worker      HELLO     int magic, int version, int threads
+ * coordinator SETTINGS  int length, the properties in {@link Properties#store} form
+ * coordinator TASK      int episode, long seed, long nanos left before the deadline,
+ *                       int length, the serialised genome
+ * worker      RESULT    int episode, float fitness, int ticks, boolean stopped, long busy nanos
+ * worker      HEARTBEAT
+ * worker      ERROR     int episode, int length, the failure and its stack trace in UTF-8
+ * </pre>
+ * A worker that can't play an episode says so with an error rather than dropping the connection,
+ * since playing it again elsewhere would only fail the same way.
+ * NEAT only exposes a genome through its serialised form, so that is what a task carries. Workers
+ * read it through {@link Serialisation}, which refuses anything but a genome.
+ */
+public class WorkerProtocol {
+
+	public static final int MAGIC = 0x41535452;
+
+	public static final int VERSION = 2;
+
+	public static final byte HELLO = 1;
+
+	public static final byte SETTINGS = 2;
+
+	public static final byte TASK = 3;
+
+	public static final byte RESULT = 4;
+
+	public static final byte HEARTBEAT = 5;
+
+	public static final byte ERROR = 6;
+
+	/**
+	 * How often a worker says it is still alive, even while it is busy playing.
+	 */
+	public static final int HEARTBEAT_MILLIS = 1000;
+
+	/**
+	 * How long a worker may go without a message before it is presumed dead.
+	 */
+	public static final int TIMEOUT_MILLIS = 10_000;
+
+	public static void writeHello(DataOutputStream output, int threads) throws IOException {
+		output.writeByte(HELLO);
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+		output.writeInt(threads);
+		output.flush();
+	}
+
+	/**
+	 * Reads the hello a worker opens with.
+	 *
+	 * @return The number of episodes the worker plays at once.
+	 */
+	public static int readHello(DataInputStream input) throws IOException {
+
+		if (input.readByte() != HELLO || input.readInt() != MAGIC) {
+			throw new IOException("Not an evaluation worker");
+		}
+
+		final int version = input.readInt();
+
+		if (version != VERSION) {
+			throw new IOException("Evaluation worker speaks version " + version + ", not " + VERSION);
+		}
+
+		return input.readInt();
+	}
+
+	public static void writeSettings(DataOutputStream output, Properties properties) throws IOException {
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		properties.store(bytes, null);
+
+		output.writeByte(SETTINGS);
+		writeBytes(output, bytes.toByteArray());
+		output.flush();
+	}
+
+	/**
+	 * Reads the settings that follow a message type of {@link #SETTINGS}.
+	 */
+	public static Properties readSettings(DataInputStream input) throws IOException {
+
+		final Properties properties = new Properties();
+		properties.load(new ByteArrayInputStream(readBytes(input)));
+
+		return properties;
+	}
+
+	public static void writeError(DataOutputStream output, int episode, Throwable cause) throws IOException {
+
+		final StringWriter text = new StringWriter();
+		cause.printStackTrace(new PrintWriter(text));
+
+		output.writeByte(ERROR);
+		output.writeInt(episode);
+		writeBytes(output, text.toString().getBytes(StandardCharsets.UTF_8));
+		output.flush();
+	}
+
+	/**
+	 * Reads the failure that follows the episode of an {@link #ERROR}.
+	 */
+	public static String readError(DataInputStream input) throws IOException {
+		return new String(readBytes(input), StandardCharsets.UTF_8);
+	}
+
+	public static byte[] serialise(Genome genome) {
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(genome);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	public static Genome deserialise(byte[] bytes) throws IOException {
+
+		try (ObjectInputStream input = Serialisation.newInputStream(new ByteArrayInputStream(bytes))) {
+			return (Genome) input.readObject();
+		} catch (ClassNotFoundException exception) {
+			throw new IOException("Unreadable genome", exception);
+		}
+	}
+
+	public static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	public static byte[] readBytes(DataInputStream input) throws IOException {
+
+		final int length = input.readInt();
+
+		if (length < 0) {
+			throw new IOException("Negative length " + length);
+		}
+
+		final byte[] bytes = new byte[length];
+		input.readFully(bytes);
+
+		return bytes;
+	}
+
+	private WorkerProtocol() {
+	}
+}
@@ -0,0 +1,240 @@
+package com.danielbulger.asteroids.entity;
+
+import com.danielbulger.asteroids.SplitMix64;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Holds every asteroid in a game as parallel primitive arrays indexed by slot, with positions and
+ * velocities kept at the precision of the integrator.
+ * <p>
+ * Destroyed asteroids hand their slot back to a free list so that splitting reuses storage
+ * instead of allocating. Slots are only ever handed out from the bottom of the arrays, so
+ * iterating up to {@link #getLimit()} and skipping dead slots visits every asteroid.
+ * <p>
+ * With slot reuse off every asteroid gets a new slot at the end, so they are visited in the order
+ * they were made, at the cost of the arrays growing for as long as the game lasts.
+ */
+public class AsteroidStore {
+
+	private static final int INITIAL_CAPACITY = 32;
+
+	private static final int CHILDREN_ON_DEATH = 2;
+
+	private static final int RADIUS_SCALE_PER_HP = 15;
+
+	private static final double BASE_VELOCITY = 2.25;
+
+	private static final double VELOCITY_STEP = 0.25;
+
+	private static final int HIGHEST_SCORE = 3;
+
+	private static final int SCORE_PER_HP = 1;
+
+	private final SplitMix64 random;
+
+	private final boolean reuseSlots;
+
+	private final Motion motion;
+
+	private int[] health = new int[INITIAL_CAPACITY];
+
+	private int[] radius = new int[INITIAL_CAPACITY];
+
+	private boolean[] alive = new boolean[INITIAL_CAPACITY];
+
+	private int[] free = new int[INITIAL_CAPACITY];
+
+	private int freeCount = 0;
+
+	private int limit = 0;
+
+	private int size = 0;
+
+	/**
+	 * @param reuseSlots Whether destroyed asteroids hand their slot on to new ones.
+	 */
+	public AsteroidStore(SplitMix64 random, Integrator integrator, boolean reuseSlots) {
+		this.random = random;
+		this.reuseSlots = reuseSlots;
+		this.motion = Motion.create(integrator, INITIAL_CAPACITY);
+	}
+
+	public int add(double x, double y, double velocityX, double velocityY, int health) {
+
+		final int slot = allocate();
+
+		final double length = Math.sqrt((velocityX * velocityX) + (velocityY * velocityY));
+		final double speed = speed(health);
+
+		motion.set(slot, x, y, (velocityX / length) * speed, (velocityY / length) * speed);
+		this.health[slot] = health;
+		this.radius[slot] = health * RADIUS_SCALE_PER_HP;
+		this.alive[slot] = true;
+
+		return slot;
+	}
+
+	private static double speed(int health) {
+		return BASE_VELOCITY - (VELOCITY_STEP * health);
+	}
+
+	private int allocate() {
+
+		++size;
+
+		if (freeCount > 0) {
+			return free[--freeCount];
+		}
+
+		if (limit == motion.capacity()) {
+			grow(motion.capacity() * 2);
+		}
+
+		return limit++;
+	}
+
+	private void grow(int capacity) {
+		motion.grow(capacity);
+		health = Arrays.copyOf(health, capacity);
+		radius = Arrays.copyOf(radius, capacity);
+		alive = Arrays.copyOf(alive, capacity);
+		free = Arrays.copyOf(free, capacity);
+	}
+
+	public void remove(int slot) {
+		alive[slot] = false;
+		--size;
+
+		if (reuseSlots) {
+			free[freeCount++] = slot;
+		}
+	}
+
+	/**
+	 * Destroys the asteroid in the given slot, replacing it with smaller children unless it is
+	 * already as small as it can get.
+	 */
+	public void split(int slot) {
+
+		final double parentX = motion.getX(slot);
+		final double parentY = motion.getY(slot);
+		final double parentVelocityX = motion.getVelocityX(slot);
+		final double parentVelocityY = motion.getVelocityY(slot);
+		final int childHealth = health[slot] - 1;
+
+		remove(slot);
+
+		// We can't get any smaller than this
+		if (childHealth == 0) {
+			return;
+		}
+
+		for (int i = 0; i < CHILDREN_ON_DEATH; ++i) {
+
+			final int child = add(parentX, parentY, parentVelocityX, parentVelocityY, childHealth);
+
+			motion.setVelocity(
+				child,
+				motion.getVelocityX(child) + (random.nextDouble() - 0.5),
+				motion.getVelocityY(child) + (random.nextDouble() - 0.5)
+			);
+		}
+	}
+
+	/**
+	 * Moves every asteroid by its velocity, wrapping around the edges of the playing field.
+	 * <p>
+	 * Dead slots are moved as well so the loop has no branches on liveness.
+	 */
+	public void update(double maxX, double maxY) {
+
+		motion.integrate(limit, maxX, maxY);
+	}
+
+	/**
+	 * @return The number of bytes {@link #snapshot(ByteBuffer)} will write.
+	 */
+	public int getSnapshotSize() {
+		return (3 * Integer.BYTES) + (limit * (motion.getSnapshotSize() + Integer.BYTES + 1)) + (freeCount * Integer.BYTES);
+	}
+
+	/**
+	 * Writes every slot, alive or not, along with the free list so a restored store hands out
+	 * slots in exactly the same order.
+	 */
+	public void snapshot(ByteBuffer buffer) {
+
+		buffer.putInt(limit);
+		buffer.putInt(size);
+		buffer.putInt(freeCount);
+
+		for (int i = 0; i < limit; ++i) {
+			motion.snapshot(buffer, i);
+			buffer.putInt(health[i]);
+			buffer.put((byte) (alive[i] ? 1 : 0));
+		}
+
+		for (int i = 0; i < freeCount; ++i) {
+			buffer.putInt(free[i]);
+		}
+	}
+
+	public void restore(ByteBuffer buffer) {
+
+		limit = buffer.getInt();
+		size = buffer.getInt();
+		freeCount = buffer.getInt();
+
+		if (limit > motion.capacity()) {
+			grow(limit);
+		}
+
+		for (int i = 0; i < limit; ++i) {
+			motion.restore(buffer, i);
+			health[i] = buffer.getInt();
+			radius[i] = health[i] * RADIUS_SCALE_PER_HP;
+			alive[i] = buffer.get() != 0;
+		}
+
+		for (int i = 0; i < freeCount; ++i) {
+			free[i] = buffer.getInt();
+		}
+	}
+
+	public boolean isAlive(int slot) {
+		return alive[slot];
+	}
+
+	public double getX(int slot) {
+		return motion.getX(slot);
+	}
+
+	public double getY(int slot) {
+		return motion.getY(slot);
+	}
+
+	public int getRadius(int slot) {
+		return radius[slot];
+	}
+
+	public int getWorth(int slot) {
+		return HIGHEST_SCORE - ((health[slot] - 1) * SCORE_PER_HP);
+	}
+
+	/**
+	 * @return One past the highest slot that has ever been used.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -0,0 +1,185 @@
+package com.danielbulger.asteroids.entity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Holds every bullet in a game as parallel primitive arrays indexed by slot, with positions and
+ * velocities kept at the precision of the integrator, reusing the slots of expired bullets through
+ * a free list unless slot reuse is off.
+ */
+public class BulletStore {
+
+	private static final int TIME_TO_LIVE = 175;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final int RADIUS = 1;
+
+	private static final double VELOCITY = 3D;
+
+	private final boolean reuseSlots;
+
+	private final Motion motion;
+
+	private int[] expiry = new int[INITIAL_CAPACITY];
+
+	private boolean[] alive = new boolean[INITIAL_CAPACITY];
+
+	private int[] free = new int[INITIAL_CAPACITY];
+
+	private int freeCount = 0;
+
+	private int limit = 0;
+
+	private int size = 0;
+
+	/**
+	 * @param reuseSlots Whether expired bullets hand their slot on to new ones.
+	 */
+	public BulletStore(Integrator integrator, boolean reuseSlots) {
+		this.reuseSlots = reuseSlots;
+		this.motion = Motion.create(integrator, INITIAL_CAPACITY);
+	}
+
+	public int add(double x, double y, double velocityX, double velocityY, int tick) {
+
+		final int slot = allocate();
+
+		final double length = Math.sqrt((velocityX * velocityX) + (velocityY * velocityY));
+
+		motion.set(slot, x, y, (velocityX / length) * VELOCITY, (velocityY / length) * VELOCITY);
+		this.expiry[slot] = tick + TIME_TO_LIVE;
+		this.alive[slot] = true;
+
+		return slot;
+	}
+
+	private int allocate() {
+
+		++size;
+
+		if (freeCount > 0) {
+			return free[--freeCount];
+		}
+
+		if (limit == motion.capacity()) {
+			grow(motion.capacity() * 2);
+		}
+
+		return limit++;
+	}
+
+	private void grow(int capacity) {
+		motion.grow(capacity);
+		expiry = Arrays.copyOf(expiry, capacity);
+		alive = Arrays.copyOf(alive, capacity);
+		free = Arrays.copyOf(free, capacity);
+	}
+
+	public void remove(int slot) {
+		alive[slot] = false;
+		--size;
+
+		if (reuseSlots) {
+			free[freeCount++] = slot;
+		}
+	}
+
+	public void clear() {
+		for (int i = 0; i < limit; ++i) {
+			alive[i] = false;
+		}
+
+		limit = 0;
+		freeCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * Removes every bullet that has lived out its time then moves the rest, wrapping around the
+	 * edges of the playing field.
+	 */
+	public void update(int tick, double maxX, double maxY) {
+
+		for (int i = 0; i < limit; ++i) {
+			if (alive[i] && tick >= expiry[i]) {
+				remove(i);
+			}
+		}
+
+		motion.integrate(limit, maxX, maxY);
+	}
+
+	/**
+	 * @return The number of bytes {@link #snapshot(ByteBuffer)} will write.
+	 */
+	public int getSnapshotSize() {
+		return (3 * Integer.BYTES) + (limit * (motion.getSnapshotSize() + Integer.BYTES + 1)) + (freeCount * Integer.BYTES);
+	}
+
+	public void snapshot(ByteBuffer buffer) {
+
+		buffer.putInt(limit);
+		buffer.putInt(size);
+		buffer.putInt(freeCount);
+
+		for (int i = 0; i < limit; ++i) {
+			motion.snapshot(buffer, i);
+			buffer.putInt(expiry[i]);
+			buffer.put((byte) (alive[i] ? 1 : 0));
+		}
+
+		for (int i = 0; i < freeCount; ++i) {
+			buffer.putInt(free[i]);
+		}
+	}
+
+	public void restore(ByteBuffer buffer) {
+
+		limit = buffer.getInt();
+		size = buffer.getInt();
+		freeCount = buffer.getInt();
+
+		if (limit > motion.capacity()) {
+			grow(limit);
+		}
+
+		for (int i = 0; i < limit; ++i) {
+			motion.restore(buffer, i);
+			expiry[i] = buffer.getInt();
+			alive[i] = buffer.get() != 0;
+		}
+
+		for (int i = 0; i < freeCount; ++i) {
+			free[i] = buffer.getInt();
+		}
+	}
+
+	public boolean isAlive(int slot) {
+		return alive[slot];
+	}
+
+	public double getX(int slot) {
+		return motion.getX(slot);
+	}
+
+	public double getY(int slot) {
+		return motion.getY(slot);
+	}
+
+	public int getRadius() {
+		return RADIUS;
+	}
+
+	/**
+	 * @return One past the highest slot that has ever been used.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,14 @@
+package com.danielbulger.asteroids.entity;
+
+/**
+ * An {@link Integrator} for entities kept in double arrays.
+ */
+public interface DoubleIntegrator extends Integrator {
+
+	void integrate(double[] x, double[] y, double[] velocityX, double[] velocityY, int count, double maxX, double maxY);
+
+	@Override
+	default boolean isSinglePrecision() {
+		return false;
+	}
+}
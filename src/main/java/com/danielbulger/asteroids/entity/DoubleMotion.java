@@ -0,0 +1,98 @@
+package com.danielbulger.asteroids.entity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class DoubleMotion extends Motion {
+
+	private final DoubleIntegrator integrator;
+
+	private double[] x;
+
+	private double[] y;
+
+	private double[] velocityX;
+
+	private double[] velocityY;
+
+	DoubleMotion(DoubleIntegrator integrator, int capacity) {
+		this.integrator = integrator;
+		this.x = new double[capacity];
+		this.y = new double[capacity];
+		this.velocityX = new double[capacity];
+		this.velocityY = new double[capacity];
+	}
+
+	@Override
+	void set(int slot, double x, double y, double velocityX, double velocityY) {
+		this.x[slot] = x;
+		this.y[slot] = y;
+		this.velocityX[slot] = velocityX;
+		this.velocityY[slot] = velocityY;
+	}
+
+	@Override
+	void setVelocity(int slot, double velocityX, double velocityY) {
+		this.velocityX[slot] = velocityX;
+		this.velocityY[slot] = velocityY;
+	}
+
+	@Override
+	double getX(int slot) {
+		return x[slot];
+	}
+
+	@Override
+	double getY(int slot) {
+		return y[slot];
+	}
+
+	@Override
+	double getVelocityX(int slot) {
+		return velocityX[slot];
+	}
+
+	@Override
+	double getVelocityY(int slot) {
+		return velocityY[slot];
+	}
+
+	@Override
+	int capacity() {
+		return x.length;
+	}
+
+	@Override
+	void grow(int capacity) {
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		velocityX = Arrays.copyOf(velocityX, capacity);
+		velocityY = Arrays.copyOf(velocityY, capacity);
+	}
+
+	@Override
+	void integrate(int count, double maxX, double maxY) {
+		integrator.integrate(x, y, velocityX, velocityY, count, maxX, maxY);
+	}
+
+	@Override
+	int getSnapshotSize() {
+		return 4 * Double.BYTES;
+	}
+
+	@Override
+	void snapshot(ByteBuffer buffer, int slot) {
+		buffer.putDouble(x[slot]);
+		buffer.putDouble(y[slot]);
+		buffer.putDouble(velocityX[slot]);
+		buffer.putDouble(velocityY[slot]);
+	}
+
+	@Override
+	void restore(ByteBuffer buffer, int slot) {
+		x[slot] = buffer.getDouble();
+		y[slot] = buffer.getDouble();
+		velocityX[slot] = buffer.getDouble();
+		velocityY[slot] = buffer.getDouble();
+	}
+}
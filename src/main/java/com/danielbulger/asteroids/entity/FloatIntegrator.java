@@ -0,0 +1,15 @@
+package com.danielbulger.asteroids.entity;
+
+/**
+ * An {@link Integrator} for entities kept in float arrays, with half the memory traffic of double
+ * precision.
+ */
+public interface FloatIntegrator extends Integrator {
+
+	void integrate(float[] x, float[] y, float[] velocityX, float[] velocityY, int count, float maxX, float maxY);
+
+	@Override
+	default boolean isSinglePrecision() {
+		return true;
+	}
+}
@@ -0,0 +1,102 @@
+package com.danielbulger.asteroids.entity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Keeps entities in half the memory of {@link DoubleMotion}, rounding everything it is given to
+ * the nearest float.
+ */
+final class FloatMotion extends Motion {
+
+	private final FloatIntegrator integrator;
+
+	private float[] x;
+
+	private float[] y;
+
+	private float[] velocityX;
+
+	private float[] velocityY;
+
+	FloatMotion(FloatIntegrator integrator, int capacity) {
+		this.integrator = integrator;
+		this.x = new float[capacity];
+		this.y = new float[capacity];
+		this.velocityX = new float[capacity];
+		this.velocityY = new float[capacity];
+	}
+
+	@Override
+	void set(int slot, double x, double y, double velocityX, double velocityY) {
+		this.x[slot] = (float) x;
+		this.y[slot] = (float) y;
+		this.velocityX[slot] = (float) velocityX;
+		this.velocityY[slot] = (float) velocityY;
+	}
+
+	@Override
+	void setVelocity(int slot, double velocityX, double velocityY) {
+		this.velocityX[slot] = (float) velocityX;
+		this.velocityY[slot] = (float) velocityY;
+	}
+
+	@Override
+	double getX(int slot) {
+		return x[slot];
+	}
+
+	@Override
+	double getY(int slot) {
+		return y[slot];
+	}
+
+	@Override
+	double getVelocityX(int slot) {
+		return velocityX[slot];
+	}
+
+	@Override
+	double getVelocityY(int slot) {
+		return velocityY[slot];
+	}
+
+	@Override
+	int capacity() {
+		return x.length;
+	}
+
+	@Override
+	void grow(int capacity) {
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		velocityX = Arrays.copyOf(velocityX, capacity);
+		velocityY = Arrays.copyOf(velocityY, capacity);
+	}
+
+	@Override
+	void integrate(int count, double maxX, double maxY) {
+		integrator.integrate(x, y, velocityX, velocityY, count, (float) maxX, (float) maxY);
+	}
+
+	@Override
+	int getSnapshotSize() {
+		return 4 * Float.BYTES;
+	}
+
+	@Override
+	void snapshot(ByteBuffer buffer, int slot) {
+		buffer.putFloat(x[slot]);
+		buffer.putFloat(y[slot]);
+		buffer.putFloat(velocityX[slot]);
+		buffer.putFloat(velocityY[slot]);
+	}
+
+	@Override
+	void restore(ByteBuffer buffer, int slot) {
+		x[slot] = buffer.getFloat();
+		y[slot] = buffer.getFloat();
+		velocityX[slot] = buffer.getFloat();
+		velocityY[slot] = buffer.getFloat();
+	}
+}
@@ -0,0 +1,16 @@
+package com.danielbulger.asteroids.entity;
+
+/**
+ * Moves a whole array of entities by their velocity, wrapping them around the playing field
+ * with the same rules as {@link com.danielbulger.asteroids.Vector2#wrap(double, double, double)}.
+ * <p>
+ * An integrator works at one precision, as either a {@link DoubleIntegrator} or a
+ * {@link FloatIntegrator}, and the stores keep their entities in arrays of the matching type.
+ */
+public interface Integrator {
+
+	/**
+	 * @return Whether entity state is kept to float rather than double precision.
+	 */
+	boolean isSinglePrecision();
+}
@@ -0,0 +1,56 @@
+package com.danielbulger.asteroids.entity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+public class Integrators {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Integrators.class.getName());
+
+	// Lives in the simd source set, which is only on the classpath when the incubator module is.
+	private static final String VECTOR_INTEGRATOR = "com.danielbulger.asteroids.simd.VectorIntegrator";
+
+	private static final String FLOAT_VECTOR_INTEGRATOR = "com.danielbulger.asteroids.simd.FloatVectorIntegrator";
+
+	/**
+	 * @param name      Either {@code scalar} or {@code vector}. If the vector integrator can't be
+	 *                  loaded, e.g. because jdk.incubator.vector wasn't added, the scalar one is
+	 *                  used.
+	 * @param precision Either {@code double} or {@code float}.
+	 */
+	public static Integrator create(String name, String precision) {
+		switch (precision) {
+			case "double":
+				return create(name, VECTOR_INTEGRATOR, DoubleIntegrator.class, ScalarIntegrator::new);
+
+			case "float":
+				return create(name, FLOAT_VECTOR_INTEGRATOR, FloatIntegrator.class, ScalarFloatIntegrator::new);
+
+			default:
+				throw new IllegalArgumentException("Unknown simulation.precision: " + precision);
+		}
+	}
+
+	private static <T extends Integrator> T create(String name, String vector, Class<T> type, Supplier<T> scalar) {
+		switch (name) {
+			case "scalar":
+				return scalar.get();
+
+			case "vector":
+				try {
+					return Class.forName(vector).asSubclass(type).getDeclaredConstructor().newInstance();
+				} catch (ReflectiveOperationException | LinkageError exception) {
+					LOG.warn("Falling back to the scalar integrator, the vector one is unavailable: {}", exception.toString());
+					return scalar.get();
+				}
+
+			default:
+				throw new IllegalArgumentException("Unknown simulation.integrator: " + name);
+		}
+	}
+
+	private Integrators() {
+	}
+}
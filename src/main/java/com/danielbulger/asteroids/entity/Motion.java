@@ -0,0 +1,56 @@
+package com.danielbulger.asteroids.entity;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The positions and velocities of every entity in a store, indexed by slot, kept as double or
+ * float arrays to suit the precision of the integrator that moves them.
+ */
+abstract class Motion {
+
+	static Motion create(Integrator integrator, int capacity) {
+
+		if (integrator instanceof FloatIntegrator) {
+			return new FloatMotion((FloatIntegrator) integrator, capacity);
+		}
+
+		if (integrator instanceof DoubleIntegrator) {
+			return new DoubleMotion((DoubleIntegrator) integrator, capacity);
+		}
+
+		throw new IllegalArgumentException("Unknown integrator " + integrator.getClass().getName());
+	}
+
+	/**
+	 * Sets everything about the slot at once, rounded to the precision it is kept at.
+	 */
+	abstract void set(int slot, double x, double y, double velocityX, double velocityY);
+
+	abstract void setVelocity(int slot, double velocityX, double velocityY);
+
+	abstract double getX(int slot);
+
+	abstract double getY(int slot);
+
+	abstract double getVelocityX(int slot);
+
+	abstract double getVelocityY(int slot);
+
+	abstract int capacity();
+
+	abstract void grow(int capacity);
+
+	/**
+	 * Moves the first {@code count} slots by their velocity, wrapping around the playing field.
+	 */
+	abstract void integrate(int count, double maxX, double maxY);
+
+	/**
+	 * @return The number of bytes {@link #snapshot(ByteBuffer, int)} writes for each slot.
+	 */
+	abstract int getSnapshotSize();
+
+	abstract void snapshot(ByteBuffer buffer, int slot);
+
+	abstract void restore(ByteBuffer buffer, int slot);
+}
@@ -0,0 +1,18 @@
+package com.danielbulger.asteroids.entity;
+
+import com.danielbulger.asteroids.Vector2;
+
+/**
+ * Moves entities with single precision arithmetic, so a game plays out as it would on a float
+ * engine.
+ */
+public class ScalarFloatIntegrator implements FloatIntegrator {
+
+	@Override
+	public void integrate(float[] x, float[] y, float[] velocityX, float[] velocityY, int count, float maxX, float maxY) {
+		for (int i = 0; i < count; ++i) {
+			x[i] = Vector2.wrap(x[i] + velocityX[i], 0, maxX);
+			y[i] = Vector2.wrap(y[i] + velocityY[i], 0, maxY);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.danielbulger.asteroids.entity;
+
+import com.danielbulger.asteroids.Vector2;
+
+public class ScalarIntegrator implements DoubleIntegrator {
+
+	@Override
+	public void integrate(double[] x, double[] y, double[] velocityX, double[] velocityY, int count, double maxX, double maxY) {
+		for (int i = 0; i < count; ++i) {
+			x[i] = Vector2.wrap(x[i] + velocityX[i], 0, maxX);
+			y[i] = Vector2.wrap(y[i] + velocityY[i], 0, maxY);
+		}
+	}
+}
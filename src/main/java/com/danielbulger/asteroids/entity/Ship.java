@@ -3,10 +3,15 @@ package com.danielbulger.asteroids.entity;
 import com.danielbulger.asteroids.Game;
 import com.danielbulger.asteroids.Vector2;
 
-import java.awt.*;
+import java.nio.ByteBuffer;
 
 public class Ship implements Entity {
 
+	/**
+	 * The number of bytes {@link #snapshot(ByteBuffer)} writes.
+	 */
+	public static final int SNAPSHOT_SIZE = (8 * Double.BYTES) + 1 + (2 * Long.BYTES);
+
 	private static final long RELOAD_TIME = 4;
 
 	private static final double DEFAULT_ROTATION = Math.toRadians(-90D);
@@ -58,6 +63,11 @@ public class Ship implements Entity {
 		position.add(velocity);
 
 		position.wrap(0, 0, game.getWidth(), game.getHeight());
+
+		if (game.isSinglePrecision()) {
+			velocity.set((float) velocity.getX(), (float) velocity.getY());
+			position.set((float) position.getX(), (float) position.getY());
+		}
 	}
 
 	public void die() {
@@ -83,37 +93,13 @@ public class Ship implements Entity {
 			return;
 		}
 
-		final Bullet bullet = new Bullet(
-			game, position, Vector2.fromAngle(rotation)
-		);
-
-		game.addBullet(bullet);
+		game.addBullet(position.getX(), position.getY(), Math.cos(rotation), Math.sin(rotation));
 
 		lastShot = game.getCurrentTick();
 	}
 
-	@Override
-	public void render(Graphics2D graphics) {
-
-		if(isImmune() && Math.random() > 0.5) {
-			return;
-		}
-
-		graphics.translate(position.getX(), position.getY());
-
-		graphics.rotate(rotation);
-
-		graphics.setColor(Color.WHITE);
-
-		final int len = getLineLength();
-
-		graphics.drawLine(-len, -len, len, 0);
-		graphics.drawLine(-len, len, len, 0);
-		graphics.drawLine(-len, -len, -len, len);
-	}
-
 	public void boost() {
-		acceleration.set(Vector2.fromAngle(rotation));
+		acceleration.set(Math.cos(rotation), Math.sin(rotation));
 		acceleration.normalise();
 	}
 
@@ -162,6 +148,33 @@ public class Ship implements Entity {
 		points[5].set(position.getX() - length, position.getY() + length);
 	}
 
+	public void snapshot(ByteBuffer buffer) {
+		buffer.putDouble(position.getX());
+		buffer.putDouble(position.getY());
+		buffer.putDouble(velocity.getX());
+		buffer.putDouble(velocity.getY());
+		buffer.putDouble(acceleration.getX());
+		buffer.putDouble(acceleration.getY());
+		buffer.putDouble(rotation);
+		buffer.putDouble(spin);
+		buffer.put((byte) (shooting ? 1 : 0));
+		buffer.putLong(lastShot);
+		buffer.putLong(immunity);
+	}
+
+	public void restore(ByteBuffer buffer) {
+		position.set(buffer.getDouble(), buffer.getDouble());
+		velocity.set(buffer.getDouble(), buffer.getDouble());
+		acceleration.set(buffer.getDouble(), buffer.getDouble());
+		rotation = buffer.getDouble();
+		spin = buffer.getDouble();
+		shooting = buffer.get() != 0;
+		lastShot = buffer.getLong();
+		immunity = buffer.getLong();
+
+		updatePoints();
+	}
+
 	public Vector2[] getPoints() {
 		return points;
 	}
@@ -0,0 +1,30 @@
+package com.danielbulger.asteroids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Only one in every {@link Sampling#TICK_MASK} + 1 ticks is timed.
+ */
+@Name("com.danielbulger.asteroids.Collision")
+@Label("Collision")
+@Description("A sampled tick of bullet and ship collision checks")
+@Category({"Asteroids", "Simulation"})
+@Enabled(false)
+@Threshold("0 ns")
+@StackTrace(false)
+public class CollisionEvent extends jdk.jfr.Event {
+
+	public static final CollisionEvent PROBE = new CollisionEvent();
+
+	@Label("Bullets")
+	public int bullets;
+
+	@Label("Asteroids")
+	public int asteroids;
+}
@@ -0,0 +1,38 @@
+package com.danielbulger.asteroids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Lasts from the episode being created to it finishing, so it includes any time the episode
+ * spent waiting for a worker as well as playing.
+ */
+@Name("com.danielbulger.asteroids.Episode")
+@Label("Episode")
+@Description("A single training game from start to finish")
+@Category({"Asteroids", "Training"})
+@Enabled(false)
+@Threshold("20 ms")
+@StackTrace(false)
+public class EpisodeEvent extends jdk.jfr.Event {
+
+	@Label("Episode")
+	public int episode;
+
+	@Label("Seed")
+	public long seed;
+
+	@Label("Ticks")
+	public int ticks;
+
+	@Label("Fitness")
+	public float fitness;
+
+	@Label("Timed Out")
+	public boolean timedOut;
+}
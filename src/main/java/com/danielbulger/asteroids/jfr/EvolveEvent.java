@@ -0,0 +1,21 @@
+package com.danielbulger.asteroids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.danielbulger.asteroids.Evolve")
+@Label("Evolve")
+@Description("NEAT breeding the next generation from the one just played")
+@Category({"Asteroids", "Training"})
+@StackTrace(false)
+public class EvolveEvent extends jdk.jfr.Event {
+
+	@Label("Generation")
+	public int generation;
+
+	@Label("Population")
+	public int population;
+}
@@ -0,0 +1,32 @@
+package com.danielbulger.asteroids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.danielbulger.asteroids.Generation")
+@Label("Generation Evaluation")
+@Description("Every episode of a generation being played")
+@Category({"Asteroids", "Training"})
+@StackTrace(false)
+public class GenerationEvent extends jdk.jfr.Event {
+
+	@Label("Generation")
+	public int generation;
+
+	@Label("Episodes")
+	public int episodes;
+
+	@Label("Ticks")
+	public long ticks;
+
+	@Label("Timed Out")
+	@Description("Episodes stopped by the generation time budget")
+	public int timedOut;
+
+	@Label("Utilisation")
+	@Description("The fraction of the available worker time spent playing")
+	public double utilisation;
+}
@@ -0,0 +1,19 @@
+package com.danielbulger.asteroids.jfr;
+
+/**
+ * Decides which ticks the per-tick events are recorded for.
+ * <p>
+ * Each event type keeps a {@code PROBE} instance only to ask whether it is enabled, so when it
+ * isn't the hot path pays for a mask and a flag check and never allocates an event.
+ */
+public class Sampling {
+
+	public static final int TICK_MASK = 0x3F;
+
+	public static boolean isSampled(int tick) {
+		return (tick & TICK_MASK) == 0;
+	}
+
+	private Sampling() {
+	}
+}
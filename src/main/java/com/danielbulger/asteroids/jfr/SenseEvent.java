@@ -0,0 +1,30 @@
+package com.danielbulger.asteroids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Only one in every {@link Sampling#TICK_MASK} + 1 ticks is timed.
+ */
+@Name("com.danielbulger.asteroids.Sense")
+@Label("Sense")
+@Description("A sampled brain casting its rays and feeding them through the network")
+@Category({"Asteroids", "Simulation"})
+@Enabled(false)
+@Threshold("0 ns")
+@StackTrace(false)
+public class SenseEvent extends jdk.jfr.Event {
+
+	public static final SenseEvent PROBE = new SenseEvent();
+
+	@Label("Rays")
+	public int rays;
+
+	@Label("Asteroids")
+	public int asteroids;
+}
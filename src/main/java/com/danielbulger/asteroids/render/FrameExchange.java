@@ -0,0 +1,49 @@
+package com.danielbulger.asteroids.render;
+
+import com.danielbulger.asteroids.Game;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands frames from the simulation thread to the render thread without either ever waiting on
+ * the other.
+ * <p>
+ * Three frames are cycled between the two threads. The simulation owns one to write into, the
+ * renderer owns one to draw from, and the third sits in the middle holding whichever was
+ * swapped in last. Each side only ever swaps its own frame with the middle one, so a frame is
+ * never written while it is being drawn, and nothing is allocated once the frames have grown to
+ * fit the game. There must only be a single publishing thread and a single reading thread.
+ */
+public class FrameExchange {
+
+	private final AtomicReference<RenderFrame> middle = new AtomicReference<>(new RenderFrame());
+
+	// Only touched by the publishing thread.
+	private RenderFrame back = new RenderFrame();
+
+	private long sequence = 0;
+
+	// Only touched by the reading thread.
+	private RenderFrame front = new RenderFrame();
+
+	/**
+	 * Copies the current state of the game into a frame and makes it the latest one.
+	 */
+	public void publish(Game game) {
+		back.capture(game, sequence++);
+		back = middle.getAndSet(back);
+	}
+
+	/**
+	 * @return The newest published frame, or null if nothing has been published yet. The frame
+	 * stays valid until the next call.
+	 */
+	public RenderFrame latest() {
+
+		if (middle.get().getSequence() > front.getSequence()) {
+			front = middle.getAndSet(front);
+		}
+
+		return front.getSequence() < 0 ? null : front;
+	}
+}
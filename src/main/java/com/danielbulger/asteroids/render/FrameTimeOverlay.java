@@ -0,0 +1,40 @@
+package com.danielbulger.asteroids.render;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows how long frames are taking to draw, and how often they are being drawn, in the corner
+ * of the window.
+ */
+public class FrameTimeOverlay {
+
+	// How much each new frame moves the averages, so they settle over roughly a second of frames.
+	private static final double SMOOTHING = 0.05;
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private double drawMillis = 0;
+
+	private double intervalMillis = 0;
+
+	private long lastFrame = 0;
+
+	public void addFrame(long drawNanos) {
+
+		final long now = System.nanoTime();
+
+		drawMillis += ((drawNanos / NANOS_PER_MILLI) - drawMillis) * SMOOTHING;
+
+		if (lastFrame != 0) {
+			intervalMillis += (((now - lastFrame) / NANOS_PER_MILLI) - intervalMillis) * SMOOTHING;
+		}
+
+		lastFrame = now;
+	}
+
+	public void render(Graphics2D graphics) {
+		graphics.setColor(Color.GREEN);
+		graphics.drawString(String.format("frame %.2f ms  draw %.2f ms", intervalMillis, drawMillis), 8, 16);
+	}
+}
@@ -0,0 +1,158 @@
+package com.danielbulger.asteroids.render;
+
+import com.danielbulger.asteroids.Game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A canvas that plays a game on the calling thread and draws it on its own schedule.
+ * <p>
+ * The game is ticked at a fixed rate paced on {@link System#nanoTime()}, publishing a
+ * {@link RenderFrame} after each batch of ticks. A separate render thread draws whichever frame was
+ * published last straight into a page flipped {@link BufferStrategy} at the frame rate, so the
+ * two rates are independent and neither side ever waits on the other. Repaints from the window
+ * system are ignored, the next frame covers them.
+ */
+public abstract class GameCanvas extends Canvas {
+
+	// If the game falls this far behind, give up catching up rather than spiral.
+	private static final int MAX_CATCH_UP_TICKS = 10;
+
+	private final GameRenderer renderer = new GameRenderer();
+
+	private final FrameExchange frames = new FrameExchange();
+
+	private final FrameTimeOverlay overlay = new FrameTimeOverlay();
+
+	private volatile boolean playing = true;
+
+	public GameCanvas() {
+		setIgnoreRepaint(true);
+	}
+
+	/**
+	 * Plays one tick.
+	 *
+	 * @return Whether to carry on playing.
+	 */
+	protected abstract boolean tick();
+
+	/**
+	 * @return The game to draw after the last tick.
+	 */
+	protected abstract Game getGame();
+
+	/**
+	 * Plays until {@link #tick()} says to stop or the thread is interrupted.
+	 */
+	public void play(int ticksPerSecond, int framesPerSecond) {
+
+		final Thread renderThread = new Thread(() -> renderLoop(framesPerSecond), "render");
+		renderThread.setDaemon(true);
+		renderThread.start();
+
+		final long tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+
+		long next = System.nanoTime();
+
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+
+				int ticks = 0;
+
+				while (System.nanoTime() - next >= 0 && ticks < MAX_CATCH_UP_TICKS) {
+
+					if (!tick()) {
+						return;
+					}
+
+					next += tickNanos;
+					++ticks;
+				}
+
+				if (ticks == MAX_CATCH_UP_TICKS) {
+					next = System.nanoTime();
+				}
+
+				if (ticks > 0) {
+					frames.publish(getGame());
+				}
+
+				LockSupport.parkNanos(next - System.nanoTime());
+			}
+		} finally {
+			playing = false;
+		}
+	}
+
+	private void renderLoop(int framesPerSecond) {
+
+		final long frameNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+
+		long next = System.nanoTime();
+
+		while (playing) {
+
+			render();
+
+			next += frameNanos;
+
+			final long wait = next - System.nanoTime();
+
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			} else {
+				next = System.nanoTime();
+			}
+		}
+	}
+
+	private void render() {
+
+		if (!isDisplayable()) {
+			return;
+		}
+
+		if (getBufferStrategy() == null) {
+			createBufferStrategy(2);
+		}
+
+		final RenderFrame frame = frames.latest();
+
+		if (frame == null) {
+			return;
+		}
+
+		final BufferStrategy strategy = getBufferStrategy();
+
+		final long start = System.nanoTime();
+
+		// The loops redraw the frame if the video memory behind the buffers was lost part way through.
+		do {
+			do {
+				final Graphics2D graphics = (Graphics2D) strategy.getDrawGraphics();
+
+				try {
+					graphics.setColor(Color.BLACK);
+					graphics.fillRect(0, 0, getWidth(), getHeight());
+
+					renderer.render(graphics, frame);
+
+					overlay.render(graphics);
+				} finally {
+					graphics.dispose();
+				}
+			} while (strategy.contentsRestored());
+
+			strategy.show();
+
+		} while (strategy.contentsLost());
+
+		Toolkit.getDefaultToolkit().sync();
+
+		overlay.addFrame(System.nanoTime() - start);
+	}
+}
@@ -0,0 +1,82 @@
+package com.danielbulger.asteroids.render;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+
+/**
+ * Draws a {@link RenderFrame} of a game without the simulation knowing anything about java.awt.
+ * <p>
+ * Everything of the same colour is gathered into one path and drawn with a single call, rather
+ * than copying the graphics and drawing each entity on its own. The paths are reused from frame
+ * to frame.
+ */
+public class GameRenderer {
+
+	private final Path2D.Double white = new Path2D.Double();
+
+	private final Path2D.Double red = new Path2D.Double();
+
+	private final Ellipse2D.Double circle = new Ellipse2D.Double();
+
+	public void render(Graphics2D graphics, RenderFrame frame) {
+
+		white.reset();
+		red.reset();
+
+		if (frame.isShipVisible()) {
+			addShip(frame);
+		}
+
+		for (int i = 0; i < frame.getAsteroids(); ++i) {
+			addCircle(white, frame.getAsteroidX(i), frame.getAsteroidY(i), frame.getAsteroidRadius(i));
+		}
+
+		for (int i = 0; i < frame.getBullets(); ++i) {
+			addCircle(red, frame.getBulletX(i), frame.getBulletY(i), frame.getBulletRadius());
+		}
+
+		addSight(frame);
+
+		graphics.setColor(Color.WHITE);
+		graphics.draw(white);
+
+		graphics.setColor(Color.RED);
+		graphics.draw(red);
+	}
+
+	private void addShip(RenderFrame frame) {
+
+		final double x = frame.getShipX();
+		final double y = frame.getShipY();
+		final double cos = Math.cos(frame.getShipRotation());
+		final double sin = Math.sin(frame.getShipRotation());
+		final int len = frame.getShipLineLength();
+
+		// The nose and the two back corners, rotated about the centre of the ship.
+		final double noseX = x + (len * cos);
+		final double noseY = y + (len * sin);
+		final double leftX = x + (-len * cos) - (-len * sin);
+		final double leftY = y + (-len * sin) + (-len * cos);
+		final double rightX = x + (-len * cos) - (len * sin);
+		final double rightY = y + (-len * sin) + (len * cos);
+
+		white.moveTo(leftX, leftY);
+		white.lineTo(noseX, noseY);
+		white.lineTo(rightX, rightY);
+		white.closePath();
+	}
+
+	private void addCircle(Path2D.Double path, double x, double y, int radius) {
+		circle.setFrame(x - radius, y - radius, radius * 2, radius * 2);
+		path.append(circle, false);
+	}
+
+	private void addSight(RenderFrame frame) {
+
+		for (int i = 0; i < frame.getSightLines(); ++i) {
+			white.moveTo((int) frame.getShipX(), (int) frame.getShipY());
+			white.lineTo((int) frame.getSightX(i), (int) frame.getSightY(i));
+		}
+	}
+}
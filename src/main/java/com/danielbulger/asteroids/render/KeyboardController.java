@@ -0,0 +1,59 @@
+package com.danielbulger.asteroids.render;
+
+import com.danielbulger.asteroids.entity.Ship;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+
+public class KeyboardController implements KeyListener {
+
+	private final Ship ship;
+
+	public KeyboardController(Ship ship) {
+		this.ship = ship;
+	}
+
+	@Override
+	public void keyTyped(KeyEvent e) {
+
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+		switch (e.getKeyCode()) {
+			case KeyEvent.VK_UP:
+				ship.boost();
+				break;
+
+			case KeyEvent.VK_LEFT:
+				ship.rotateLeft();
+				break;
+
+			case KeyEvent.VK_RIGHT:
+				ship.rotateRight();
+				break;
+
+			case KeyEvent.VK_SPACE:
+				ship.startShooting();
+				break;
+		}
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+		switch (e.getKeyCode()) {
+			case KeyEvent.VK_UP:
+				ship.boostOff();
+				break;
+
+			case KeyEvent.VK_LEFT:
+			case KeyEvent.VK_RIGHT:
+				ship.stopRotation();
+				break;
+
+			case KeyEvent.VK_SPACE:
+				ship.stopShooting();
+				break;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package com.danielbulger.asteroids.render;
+
+import com.danielbulger.asteroids.Game;
+import com.danielbulger.asteroids.Vector2;
+import com.danielbulger.asteroids.entity.AsteroidStore;
+import com.danielbulger.asteroids.entity.BulletStore;
+import com.danielbulger.asteroids.entity.Ship;
+
+import java.util.Arrays;
+
+/**
+ * Everything needed to draw one tick of a game, copied out of it so it can be drawn on another
+ * thread while the game carries on.
+ * <p>
+ * Frames are recycled by a {@link FrameExchange}, which guarantees a frame is never written
+ * while it can be read.
+ */
+public class RenderFrame {
+
+	// Volatile as the reading thread may peek at it while the frame is being reused.
+	private volatile long sequence = -1;
+
+	private int tick;
+
+	private double shipX;
+
+	private double shipY;
+
+	private double shipRotation;
+
+	private int shipLineLength;
+
+	private boolean shipVisible;
+
+	private int asteroids;
+
+	private double[] asteroidX = new double[32];
+
+	private double[] asteroidY = new double[32];
+
+	private int[] asteroidRadius = new int[32];
+
+	private int bullets;
+
+	private double[] bulletX = new double[64];
+
+	private double[] bulletY = new double[64];
+
+	private int bulletRadius;
+
+	private double[] sightX = new double[0];
+
+	private double[] sightY = new double[0];
+
+	void capture(Game game, long sequence) {
+
+		this.sequence = sequence;
+		this.tick = game.getCurrentTick();
+
+		final Ship ship = game.getShip();
+
+		shipX = ship.getPosition().getX();
+		shipY = ship.getPosition().getY();
+		shipRotation = ship.getRotation();
+		shipLineLength = ship.getLineLength();
+		// Blink while immune.
+		shipVisible = !ship.isImmune() || (tick / 4) % 2 != 0;
+
+		captureAsteroids(game.getAsteroids());
+		captureBullets(game.getBullets());
+
+		final Vector2[] sight = game.getBrain().getSight();
+
+		if (sightX.length != sight.length) {
+			sightX = new double[sight.length];
+			sightY = new double[sight.length];
+		}
+
+		for (int i = 0; i < sight.length; ++i) {
+			sightX[i] = sight[i].getX();
+			sightY[i] = sight[i].getY();
+		}
+	}
+
+	private void captureAsteroids(AsteroidStore store) {
+
+		if (asteroidX.length < store.size()) {
+			asteroidX = Arrays.copyOf(asteroidX, store.getLimit());
+			asteroidY = Arrays.copyOf(asteroidY, store.getLimit());
+			asteroidRadius = Arrays.copyOf(asteroidRadius, store.getLimit());
+		}
+
+		asteroids = 0;
+
+		for (int i = 0; i < store.getLimit(); ++i) {
+			if (store.isAlive(i)) {
+				asteroidX[asteroids] = store.getX(i);
+				asteroidY[asteroids] = store.getY(i);
+				asteroidRadius[asteroids] = store.getRadius(i);
+				++asteroids;
+			}
+		}
+	}
+
+	private void captureBullets(BulletStore store) {
+
+		if (bulletX.length < store.size()) {
+			bulletX = Arrays.copyOf(bulletX, store.getLimit());
+			bulletY = Arrays.copyOf(bulletY, store.getLimit());
+		}
+
+		bullets = 0;
+		bulletRadius = store.getRadius();
+
+		for (int i = 0; i < store.getLimit(); ++i) {
+			if (store.isAlive(i)) {
+				bulletX[bullets] = store.getX(i);
+				bulletY[bullets] = store.getY(i);
+				++bullets;
+			}
+		}
+	}
+
+	/**
+	 * @return Increases with every frame published, so newer frames can be told apart.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public double getShipX() {
+		return shipX;
+	}
+
+	public double getShipY() {
+		return shipY;
+	}
+
+	public double getShipRotation() {
+		return shipRotation;
+	}
+
+	public int getShipLineLength() {
+		return shipLineLength;
+	}
+
+	public boolean isShipVisible() {
+		return shipVisible;
+	}
+
+	public int getAsteroids() {
+		return asteroids;
+	}
+
+	public double getAsteroidX(int asteroid) {
+		return asteroidX[asteroid];
+	}
+
+	public double getAsteroidY(int asteroid) {
+		return asteroidY[asteroid];
+	}
+
+	public int getAsteroidRadius(int asteroid) {
+		return asteroidRadius[asteroid];
+	}
+
+	public int getBullets() {
+		return bullets;
+	}
+
+	public double getBulletX(int bullet) {
+		return bulletX[bullet];
+	}
+
+	public double getBulletY(int bullet) {
+		return bulletY[bullet];
+	}
+
+	public int getBulletRadius() {
+		return bulletRadius;
+	}
+
+	public int getSightLines() {
+		return sightX.length;
+	}
+
+	public double getSightX(int line) {
+		return sightX[line];
+	}
+
+	public double getSightY(int line) {
+		return sightY[line];
+	}
+}
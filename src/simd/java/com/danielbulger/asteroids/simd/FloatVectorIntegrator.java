@@ -0,0 +1,46 @@
+package com.danielbulger.asteroids.simd;
+
+import com.danielbulger.asteroids.Vector2;
+import com.danielbulger.asteroids.entity.FloatIntegrator;
+import com.danielbulger.asteroids.entity.ScalarFloatIntegrator;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link VectorIntegrator} for float precision entity state, which fits twice as many entities
+ * in each vector and moves them exactly as {@link ScalarFloatIntegrator} would.
+ */
+public class FloatVectorIntegrator implements FloatIntegrator {
+
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	@Override
+	public void integrate(float[] x, float[] y, float[] velocityX, float[] velocityY, int count, float maxX, float maxY) {
+
+		final int bound = SPECIES.loopBound(count);
+
+		for (int i = 0; i < bound; i += SPECIES.length()) {
+			integrate(x, velocityX, i, maxX);
+			integrate(y, velocityY, i, maxY);
+		}
+
+		for (int i = bound; i < count; ++i) {
+			x[i] = Vector2.wrap(x[i] + velocityX[i], 0, maxX);
+			y[i] = Vector2.wrap(y[i] + velocityY[i], 0, maxY);
+		}
+	}
+
+	private static void integrate(float[] position, float[] velocity, int offset, float max) {
+
+		final FloatVector moved = FloatVector.fromArray(SPECIES, position, offset)
+			.add(FloatVector.fromArray(SPECIES, velocity, offset));
+
+		// Past either edge puts the entity on the opposite edge, the same as Vector2.wrap.
+		final VectorMask<Float> under = moved.compare(VectorOperators.LT, 0);
+		final VectorMask<Float> over = moved.compare(VectorOperators.GT, max);
+
+		moved.blend(max, under).blend(0, over).intoArray(position, offset);
+	}
+}
@@ -0,0 +1,45 @@
+package com.danielbulger.asteroids.simd;
+
+import com.danielbulger.asteroids.Vector2;
+import com.danielbulger.asteroids.entity.DoubleIntegrator;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Integrates and wraps as many entities per instruction as the CPU's vector width allows,
+ * finishing whatever is left over at the end of the arrays one at a time.
+ */
+public class VectorIntegrator implements DoubleIntegrator {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	@Override
+	public void integrate(double[] x, double[] y, double[] velocityX, double[] velocityY, int count, double maxX, double maxY) {
+
+		final int bound = SPECIES.loopBound(count);
+
+		for (int i = 0; i < bound; i += SPECIES.length()) {
+			integrate(x, velocityX, i, maxX);
+			integrate(y, velocityY, i, maxY);
+		}
+
+		for (int i = bound; i < count; ++i) {
+			x[i] = Vector2.wrap(x[i] + velocityX[i], 0, maxX);
+			y[i] = Vector2.wrap(y[i] + velocityY[i], 0, maxY);
+		}
+	}
+
+	private static void integrate(double[] position, double[] velocity, int offset, double max) {
+
+		final DoubleVector moved = DoubleVector.fromArray(SPECIES, position, offset)
+			.add(DoubleVector.fromArray(SPECIES, velocity, offset));
+
+		// Past either edge puts the entity on the opposite edge, the same as Vector2.wrap.
+		final VectorMask<Double> under = moved.compare(VectorOperators.LT, 0);
+		final VectorMask<Double> over = moved.compare(VectorOperators.GT, max);
+
+		moved.blend(max, under).blend(0, over).intoArray(position, offset);
+	}
+}
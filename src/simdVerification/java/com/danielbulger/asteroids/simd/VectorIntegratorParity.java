@@ -0,0 +1,118 @@
+package com.danielbulger.asteroids.simd;
+
+import com.danielbulger.asteroids.entity.DoubleIntegrator;
+import com.danielbulger.asteroids.entity.FloatIntegrator;
+import com.danielbulger.asteroids.entity.ScalarFloatIntegrator;
+import com.danielbulger.asteroids.entity.ScalarIntegrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Checks that {@link VectorIntegrator} and {@link FloatVectorIntegrator} move and wrap entities
+ * exactly like the scalar integrators of the same precision, including entities sitting right on the edges and array lengths that don't fill a
+ * whole vector.
+ */
+public class VectorIntegratorParity {
+
+	private static final Logger LOG = LoggerFactory.getLogger(VectorIntegratorParity.class.getName());
+
+	private static final double WIDTH = 800;
+
+	private static final double HEIGHT = 600;
+
+	private static final int ROUNDS = 1_000;
+
+	public static void main(String[] args) {
+
+		final SplittableRandom random = new SplittableRandom(0);
+
+		final DoubleIntegrator scalar = new ScalarIntegrator();
+		final DoubleIntegrator vector = new VectorIntegrator();
+		final FloatIntegrator floatScalar = new ScalarFloatIntegrator();
+		final FloatIntegrator floatVector = new FloatVectorIntegrator();
+
+		for (int round = 0; round < ROUNDS; ++round) {
+
+			final int count = random.nextInt(1, 70);
+
+			final double[] x = positions(random, count, WIDTH);
+			final double[] y = positions(random, count, HEIGHT);
+			final double[] velocityX = velocities(random, count);
+			final double[] velocityY = velocities(random, count);
+
+			final double[] expectedX = x.clone();
+			final double[] expectedY = y.clone();
+
+			scalar.integrate(expectedX, expectedY, velocityX, velocityY, count, WIDTH, HEIGHT);
+			vector.integrate(x, y, velocityX, velocityY, count, WIDTH, HEIGHT);
+
+			if (!Arrays.equals(expectedX, x) || !Arrays.equals(expectedY, y)) {
+				throw new IllegalStateException("Vector integrator diverged from the scalar one in round " + round);
+			}
+
+			final float[] floatX = toFloats(x);
+			final float[] floatY = toFloats(y);
+			final float[] floatVelocityX = toFloats(velocityX);
+			final float[] floatVelocityY = toFloats(velocityY);
+
+			final float[] expectedFloatX = floatX.clone();
+			final float[] expectedFloatY = floatY.clone();
+
+			floatScalar.integrate(expectedFloatX, expectedFloatY, floatVelocityX, floatVelocityY, count, (float) WIDTH, (float) HEIGHT);
+			floatVector.integrate(floatX, floatY, floatVelocityX, floatVelocityY, count, (float) WIDTH, (float) HEIGHT);
+
+			if (!Arrays.equals(expectedFloatX, floatX) || !Arrays.equals(expectedFloatY, floatY)) {
+				throw new IllegalStateException("Float vector integrator diverged from the scalar one in round " + round);
+			}
+		}
+
+		LOG.info("Vector integrators matched the scalar ones over {} rounds", ROUNDS);
+	}
+
+	private static double[] positions(SplittableRandom random, int count, double max) {
+
+		final double[] values = new double[count];
+
+		for (int i = 0; i < count; ++i) {
+			switch (random.nextInt(4)) {
+				case 0:
+					values[i] = 0;
+					break;
+
+				case 1:
+					values[i] = max;
+					break;
+
+				default:
+					values[i] = random.nextDouble() * max;
+			}
+		}
+
+		return values;
+	}
+
+	private static float[] toFloats(double[] values) {
+
+		final float[] floats = new float[values.length];
+
+		for (int i = 0; i < values.length; ++i) {
+			floats[i] = (float) values[i];
+		}
+
+		return floats;
+	}
+
+	private static double[] velocities(SplittableRandom random, int count) {
+
+		final double[] values = new double[count];
+
+		for (int i = 0; i < count; ++i) {
+			values[i] = random.nextInt(5) == 0 ? 0 : (random.nextDouble() - 0.5) * 6;
+		}
+
+		return values;
+	}
+}
@@ -0,0 +1,116 @@
+package com.danielbulger.asteroids;
+
+import com.danielbulger.asteroids.entity.Ship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes a steady-state {@link Game#update()} allocates on the calling thread
+ * and fails if it goes over budget.
+ * <p>
+ * The ship is flown by a fixed script instead of a genome so that shooting, splitting and dying
+ * are all exercised without counting whatever the network allocates in feedForward. Any real
+ * per-tick allocation costs at least one object header, so the default budget of one byte per
+ * tick only leaves room for the occasional one-off growth of a reusable buffer.
+ * <p>
+ * Usage: {@code AllocationCheck [ticks] [bytes-per-tick]}
+ */
+public class AllocationCheck {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AllocationCheck.class.getName());
+
+	private static final int WARM_UP_TICKS = 20_000;
+
+	private static final int GAME_WARM_UP_TICKS = 200;
+
+	private static final int DEFAULT_TICKS = 200_000;
+
+	private static final double DEFAULT_BUDGET = 1.0;
+
+	public static void main(String[] args) {
+
+		final long ticks = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_TICKS;
+		final double budget = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_BUDGET;
+
+		final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			throw new IllegalStateException("This JVM can't measure per-thread allocations");
+		}
+
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		final long thread = Thread.currentThread().getId();
+
+		// Give the JIT a chance to compile the tick before anything is measured.
+		run(WARM_UP_TICKS, threads, thread);
+
+		final long allocated = run(ticks, threads, thread);
+
+		final double perTick = (double) allocated / ticks;
+
+		LOG.info("Allocated {} bytes over {} ticks ({} bytes per tick)", allocated, ticks, perTick);
+
+		if (perTick > budget) {
+			throw new IllegalStateException(
+				"Game.update allocated " + perTick + " bytes per tick, the budget is " + budget
+			);
+		}
+	}
+
+	private static long run(long ticks, com.sun.management.ThreadMXBean threads, long thread) {
+
+		final Settings settings = Settings.defaults();
+
+		// Calibrate against the cost of reading the counter itself.
+		final long overhead = -threads.getThreadAllocatedBytes(thread) + threads.getThreadAllocatedBytes(thread);
+
+		long allocated = 0;
+		long measured = 0;
+
+		long seed = 0;
+
+		while (measured < ticks) {
+
+			final Game game = new Game(Trainer.WIDTH, Trainer.HEIGHT, null, settings, seed++);
+
+			final Ship ship = game.getShip();
+			ship.startShooting();
+
+			// Let the stores and grid grow to their working size before measuring.
+			for (int i = 0; i < GAME_WARM_UP_TICKS && !game.isGameOver(); ++i) {
+				fly(ship, game.getCurrentTick());
+				game.update();
+			}
+
+			final long before = threads.getThreadAllocatedBytes(thread);
+
+			long played = 0;
+
+			while (!game.isGameOver() && measured + played < ticks) {
+				fly(ship, game.getCurrentTick());
+				game.update();
+				++played;
+			}
+
+			allocated += threads.getThreadAllocatedBytes(thread) - before - overhead;
+			measured += played;
+		}
+
+		return Math.max(0, allocated);
+	}
+
+	private static void fly(Ship ship, int tick) {
+
+		if ((tick / 50) % 2 == 0) {
+			ship.rotateLeft();
+			ship.boost();
+		} else {
+			ship.rotateRight();
+			ship.boostOff();
+		}
+	}
+}